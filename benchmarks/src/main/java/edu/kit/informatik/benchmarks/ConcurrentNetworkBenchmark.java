@@ -0,0 +1,124 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.network.ConcurrentNetwork;
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a concurrent network when every thread changes its own subnet
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class ConcurrentNetworkBenchmark {
+    /**
+     * subnets of the shared network, every thread uses one of them
+     */
+    private static final int SUBNETS = 256;
+    /**
+     * addresses of different subnets don't overlap
+     */
+    private static final int SUBNET_STRIDE = 1 << 20;
+
+    /**
+     * Network with many disjoint subnets
+     */
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        /**
+         * number of hosts of every subnet
+         */
+        @Param({"1000"})
+        public int subnetSize;
+
+        private ConcurrentNetwork network;
+
+        /**
+         * Creates every subnet as a chain of hosts
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            network = new ConcurrentNetwork();
+            for (int subnet = 0; subnet < SUBNETS; subnet++) {
+                int base = subnet * SUBNET_STRIDE;
+                Network chain = new Network(new IP(base), List.of(new IP(base + 1)));
+                for (int host = 2; host < subnetSize; host++) {
+                    chain.add(new Network(new IP(base + host - 1), List.of(new IP(base + host))));
+                }
+                network.add(chain);
+            }
+        }
+    }
+
+    /**
+     * The subnet of one thread and a host outside of every subnet that gets connected to it
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private IP host;
+        private IP leaf;
+        private IP probe;
+
+        /**
+         * Chooses the subnet of the thread
+         *
+         * @param shared  shared state
+         * @param threads thread parameters
+         */
+        @Setup(Level.Trial)
+        public void setUp(SharedState shared, ThreadParams threads) {
+            int base = (threads.getThreadIndex() % SUBNETS) * SUBNET_STRIDE;
+            host = new IP(base + shared.subnetSize / 2);
+            leaf = new IP(base + shared.subnetSize);
+            probe = new IP(base + shared.subnetSize - 1);
+        }
+    }
+
+    /**
+     * Adding a leaf to the subnet of the thread and removing it again
+     *
+     * @param shared shared state
+     * @param state  thread state
+     * @return true if both operations succeeded
+     */
+    @Benchmark
+    public boolean addAndDisconnect(SharedState shared, ThreadState state) {
+        return shared.network.add(new Network(state.host, List.of(state.leaf)))
+            && shared.network.disconnect(state.host, state.leaf);
+    }
+
+    /**
+     * Reading a route inside the subnet of the thread
+     *
+     * @param shared shared state
+     * @param state  thread state
+     * @return route
+     */
+    @Benchmark
+    public List<IP> getRoute(SharedState shared, ThreadState state) {
+        return shared.network.getRoute(state.host, state.probe);
+    }
+}
@@ -0,0 +1,124 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.benchmarks.TopologyGenerator.Shape;
+import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.graph.Node;
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+import edu.kit.informatik.utils.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stress benchmarks for very deep trees. Every host of the chain is connected to the previous one, and the forked
+ * JVM only gets a small stack, so any recursion over the depth of the tree fails with a stack overflow instead of
+ * a result. The deepest chain needs a heap of several gigabytes.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xss256k", "-Xmx12g"})
+public class DepthBenchmark {
+
+    /**
+     * A chain of hosts, rooted at its first host
+     */
+    @State(Scope.Benchmark)
+    public static class ChainState {
+        /**
+         * number of hosts of the chain
+         */
+        @Param({"1000000", "10000000"})
+        public int depth;
+
+        private String bracketNotation;
+        private Network network;
+        private IP first;
+        private IP last;
+        private boolean rootedAtLast;
+
+        /**
+         * Generates the chain
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            TopologyGenerator generator = new TopologyGenerator(Shape.CHAIN, depth, NetworkState.SEED);
+            bracketNotation = generator.toBracketNotation();
+            network = generator.toNetwork();
+            first = generator.address(0);
+            last = generator.address(depth - 1);
+        }
+    }
+
+    /**
+     * Parsing the chain and building the network
+     *
+     * @param state chain state
+     * @return new network
+     * @throws ParseException never, the bracket notation was generated
+     */
+    @Benchmark
+    public Network parse(ChainState state) throws ParseException {
+        return new Network(state.bracketNotation);
+    }
+
+    /**
+     * Moving the root to the other end of the chain, every host on the way changes its parent
+     *
+     * @param state chain state
+     */
+    @Benchmark
+    public void changeRoot(ChainState state) {
+        state.network.betterChangeRoot(state.rootedAtLast ? state.first : state.last, null);
+        state.rootedAtLast = !state.rootedAtLast;
+    }
+
+    /**
+     * Finding the root of the subnet from the host at the other end of the chain
+     *
+     * @param state chain state
+     * @return root of the chain
+     */
+    @Benchmark
+    public Node getSubnetRoot(ChainState state) {
+        return Graph.getSubnetRoot(state.network.getAsNode(state.rootedAtLast ? state.first : state.last, -1));
+    }
+
+    /**
+     * Copying the whole chain
+     *
+     * @param state chain state
+     * @return copy of the root node
+     */
+    @Benchmark
+    public Node copy(ChainState state) {
+        return state.network.getSubnets().get(0).copy();
+    }
+
+    /**
+     * Getting the height of the chain from its last host
+     *
+     * @param state chain state
+     * @return height of the chain
+     */
+    @Benchmark
+    public int getHeight(ChainState state) {
+        return state.network.getHeight(state.last);
+    }
+}
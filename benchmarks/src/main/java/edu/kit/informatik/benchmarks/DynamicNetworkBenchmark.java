@@ -0,0 +1,115 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.network.DynamicNetwork;
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for connections going down and up again, on a {@link Network} and on a {@link DynamicNetwork} of the
+ * same topology
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DynamicNetworkBenchmark {
+    private static final int FLAPS = 1024;
+
+    /**
+     * Both networks and a fixed sequence of connections of the generated tree
+     */
+    @State(Scope.Thread)
+    public static class ChurnState {
+        private Network network;
+        private DynamicNetwork dynamic;
+        private IP[] children;
+        private IP[] parents;
+        private int next;
+
+        /**
+         * Generates the networks and the connections which go down and up
+         *
+         * @param state network state
+         */
+        @Setup(Level.Trial)
+        public void setUp(NetworkState state) {
+            network = state.generator.toNetwork();
+            dynamic = new DynamicNetwork(network);
+            Random random = new Random(NetworkState.SEED);
+            children = new IP[FLAPS];
+            parents = new IP[FLAPS];
+            for (int i = 0; i < FLAPS; i++) {
+                int host = 1 + random.nextInt(state.size - 1);
+                children[i] = state.generator.address(host);
+                parents[i] = state.generator.address(state.generator.parent(host));
+            }
+        }
+
+        private int nextFlap() {
+            next = (next + 1) % FLAPS;
+            return next;
+        }
+    }
+
+    /**
+     * Removing a connection of the tree and adding it again
+     *
+     * @param state churn state
+     * @return true if the connection is back
+     */
+    @Benchmark
+    public boolean flap(ChurnState state) {
+        int flap = state.nextFlap();
+        IP child = state.children[flap];
+        IP parent = state.parents[flap];
+        state.network.disconnect(child, parent);
+        // a host without connections is removed, then the connection has to be added with the host
+        return state.network.connect(child, parent) || state.network.add(new Network(parent, List.of(child)));
+    }
+
+    /**
+     * Removing a connection of the tree and adding it again
+     *
+     * @param state churn state
+     * @return true if the connection is back
+     */
+    @Benchmark
+    public boolean flapDynamic(ChurnState state) {
+        int flap = state.nextFlap();
+        IP child = state.children[flap];
+        IP parent = state.parents[flap];
+        state.dynamic.disconnect(child, parent);
+        return state.dynamic.connect(child, parent) || state.dynamic.add(new Network(parent, List.of(child)));
+    }
+
+    /**
+     * Getting the distance between two random hosts
+     *
+     * @param state churn state
+     * @param hosts network state which provides the hosts
+     * @return number of connections between both hosts
+     */
+    @Benchmark
+    public int getDistanceDynamic(ChurnState state, NetworkState hosts) {
+        return state.dynamic.getDistance(hosts.nextHost(), hosts.nextHost());
+    }
+}
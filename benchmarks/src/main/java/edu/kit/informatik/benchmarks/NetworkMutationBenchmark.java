@@ -0,0 +1,130 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the operations which change a network
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkMutationBenchmark {
+    /**
+     * first address which is used for hosts that aren't part of the generated network
+     */
+    private static final int FOREIGN_ADDRESSES = 0x0A000000;
+
+    /**
+     * Network with an extra subnet of two hosts which gets connected and disconnected again
+     */
+    @State(Scope.Thread)
+    public static class ConnectState {
+        private Network network;
+        private IP[] hosts;
+        private IP bridge;
+        private int next;
+
+        /**
+         * Generates the network and the extra subnet
+         *
+         * @param state network state
+         */
+        @Setup(Level.Trial)
+        public void setUp(NetworkState state) {
+            network = state.generator.toNetwork();
+            hosts = state.hosts;
+            bridge = new IP(FOREIGN_ADDRESSES);
+            network.add(new Network(bridge, List.of(new IP(FOREIGN_ADDRESSES + 1))));
+        }
+    }
+
+    /**
+     * Fresh copy of the network and an inventory feed which shares hosts with it
+     */
+    @State(Scope.Thread)
+    public static class AddState {
+        /**
+         * share of the hosts of the network which get a new neighbour through the feed
+         */
+        @Param({"0.01"})
+        public double feedShare;
+
+        private Network network;
+        private Network feed;
+
+        /**
+         * Generates the feed, every chosen host gets a new leaf and the route between two hosts is sent again
+         *
+         * @param state network state
+         */
+        @Setup(Level.Trial)
+        public void setUpFeed(NetworkState state) {
+            Random random = new Random(NetworkState.SEED);
+            int hosts = Math.max(1, (int) (state.size * feedShare));
+            feed = new Network(state.generator.address(0), List.of(new IP(FOREIGN_ADDRESSES)));
+            for (int i = 1; i < hosts; i++) {
+                IP host = state.generator.address(random.nextInt(state.size));
+                feed.add(new Network(host, List.of(new IP(FOREIGN_ADDRESSES + i))));
+            }
+            int host = 1 + random.nextInt(state.size - 1);
+            feed.add(new Network(state.generator.address(state.generator.parent(host)),
+                List.of(state.generator.address(host))));
+        }
+
+        /**
+         * Every merge starts with an untouched network
+         *
+         * @param state network state
+         */
+        @Setup(Level.Invocation)
+        public void setUpNetwork(NetworkState state) {
+            network = state.generator.toNetwork();
+        }
+    }
+
+    /**
+     * Connecting a random host to the extra subnet and removing that connection again
+     *
+     * @param state connect state
+     * @return true if both operations succeeded
+     */
+    @Benchmark
+    public boolean connectAndDisconnect(ConnectState state) {
+        state.next = (state.next + 1) % state.hosts.length;
+        IP host = state.hosts[state.next];
+        return state.network.connect(host, state.bridge) && state.network.disconnect(host, state.bridge);
+    }
+
+    /**
+     * Merging an inventory feed into the network
+     *
+     * @param state add state
+     * @return true if the network changed
+     */
+    @Benchmark
+    public boolean add(AddState state) {
+        return state.network.add(state.feed);
+    }
+}
@@ -0,0 +1,158 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the read operations of a network
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkQueryBenchmark {
+
+    /**
+     * A second network with the same topology for comparisons
+     */
+    @State(Scope.Benchmark)
+    public static class EqualState {
+        /**
+         * network which is equal to the one of the network state
+         */
+        public Network copy;
+
+        /**
+         * Generates the copy
+         *
+         * @param state network state
+         */
+        @Setup(Level.Trial)
+        public void setUp(NetworkState state) {
+            copy = state.generator.toNetwork();
+        }
+    }
+
+    /**
+     * Listing every address
+     *
+     * @param state network state
+     * @return list of all addresses
+     */
+    @Benchmark
+    public List<IP> list(NetworkState state) {
+        return state.network.list();
+    }
+
+    /**
+     * Checking if a host exists
+     *
+     * @param state network state
+     * @return true
+     */
+    @Benchmark
+    public boolean contains(NetworkState state) {
+        return state.network.contains(state.nextHost());
+    }
+
+    /**
+     * Height of the tree rooted at a random host
+     *
+     * @param state network state
+     * @return height
+     */
+    @Benchmark
+    public int getHeight(NetworkState state) {
+        return state.network.getHeight(state.nextHost());
+    }
+
+    /**
+     * Levels of the tree rooted at a random host
+     *
+     * @param state network state
+     * @return levels
+     */
+    @Benchmark
+    public List<List<IP>> getLevels(NetworkState state) {
+        return state.network.getLevels(state.nextHost());
+    }
+
+    /**
+     * Route between two random hosts
+     *
+     * @param state network state
+     * @return route
+     */
+    @Benchmark
+    public List<IP> getRoute(NetworkState state) {
+        return state.network.getRoute(state.nextHost(), state.nextHost());
+    }
+
+    /**
+     * Routes between 512 pairs of random hosts in one batch
+     *
+     * @param state network state
+     * @return routes
+     */
+    @Benchmark
+    public List<List<IP>> getRoutes(NetworkState state) {
+        List<IP[]> pairs = new ArrayList<>(state.hosts.length / 2);
+        for (int i = 0; i + 1 < state.hosts.length; i += 2) {
+            pairs.add(new IP[] {state.hosts[i], state.hosts[i + 1]});
+        }
+        return state.network.getRoutes(pairs);
+    }
+
+    /**
+     * Length of the route between two random hosts
+     *
+     * @param state network state
+     * @return distance
+     */
+    @Benchmark
+    public int getDistance(NetworkState state) {
+        return state.network.getDistance(state.nextHost(), state.nextHost());
+    }
+
+    /**
+     * Bracket notation rooted at a random host
+     *
+     * @param state network state
+     * @return bracket notation
+     */
+    @Benchmark
+    public String toBracketNotation(NetworkState state) {
+        return state.network.toString(state.nextHost());
+    }
+
+    /**
+     * Comparing two networks with the same topology
+     *
+     * @param state network state
+     * @param equal state with the second network
+     * @return true
+     */
+    @Benchmark
+    public boolean equalTo(NetworkState state, EqualState equal) {
+        return state.network.equals(equal.copy);
+    }
+}
@@ -0,0 +1,83 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.benchmarks.TopologyGenerator.Shape;
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Shared benchmark state, a generated network and a fixed sequence of random hosts to query
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class NetworkState {
+    /**
+     * seed of every generated topology, fixed so that results of different versions are comparable
+     */
+    public static final long SEED = 20211L;
+    private static final int QUERIES = 1024;
+
+    /**
+     * shape of the generated tree
+     */
+    @Param({"BALANCED", "CHAIN", "STAR", "RANDOM"})
+    public Shape shape;
+
+    /**
+     * number of hosts of the generated tree
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * generated topology
+     */
+    public TopologyGenerator generator;
+    /**
+     * network of the generated topology
+     */
+    public Network network;
+    /**
+     * random hosts of the network
+     */
+    public IP[] hosts;
+    /**
+     * the network in bracket notation rooted at its first host
+     */
+    public String bracketNotation;
+
+    private int next;
+
+    /**
+     * Generates the network
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new TopologyGenerator(shape, size, SEED);
+        network = generator.toNetwork();
+        bracketNotation = generator.toBracketNotation();
+        Random random = new Random(SEED);
+        hosts = new IP[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            hosts[i] = generator.address(random.nextInt(size));
+        }
+    }
+
+    /**
+     * Getting the next host of the query sequence
+     *
+     * @return random host of the network
+     */
+    public IP nextHost() {
+        next = (next + 1) % QUERIES;
+        return hosts[next];
+    }
+}
@@ -0,0 +1,62 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.network.Network;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading and writing the bracket notation
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    /**
+     * Parsing the bracket notation of the generated network
+     *
+     * @param state network state
+     * @return parsed network
+     * @throws ParseException never, the notation is generated
+     */
+    @Benchmark
+    public Network parse(NetworkState state) throws ParseException {
+        return new Network(state.bracketNotation);
+    }
+
+    /**
+     * Writing the bracket notation of the generated network
+     *
+     * @param state network state
+     * @return bracket notation
+     */
+    @Benchmark
+    public String serialize(NetworkState state) {
+        return state.network.toString(state.generator.address(0));
+    }
+
+    /**
+     * Writing and parsing the bracket notation again
+     *
+     * @param state network state
+     * @return parsed network
+     * @throws ParseException never, the notation is generated
+     */
+    @Benchmark
+    public Network roundTrip(NetworkState state) throws ParseException {
+        return new Network(state.network.toString(state.generator.address(0)));
+    }
+}
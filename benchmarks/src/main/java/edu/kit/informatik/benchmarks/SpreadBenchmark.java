@@ -0,0 +1,83 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.analysis.SpreadAnalyzer;
+import edu.kit.informatik.analysis.SpreadResult;
+import edu.kit.informatik.network.IP;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the spread simulation
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpreadBenchmark {
+    private static final int SEED_SETS = 64;
+    private static final int SEEDS_PER_SET = 3;
+
+    /**
+     * Analyzer of the generated network and random seed sets
+     */
+    @State(Scope.Benchmark)
+    public static class SpreadState {
+        private SpreadAnalyzer analyzer;
+        private List<List<IP>> seedSets;
+
+        /**
+         * Creates the analyzer and the seed sets
+         *
+         * @param state network state
+         */
+        @Setup(Level.Trial)
+        public void setUp(NetworkState state) {
+            analyzer = new SpreadAnalyzer(state.network);
+            seedSets = new ArrayList<>();
+            for (int set = 0; set < SEED_SETS; set++) {
+                List<IP> seeds = new ArrayList<>();
+                for (int i = 0; i < SEEDS_PER_SET; i++) seeds.add(state.nextHost());
+                seedSets.add(seeds);
+            }
+        }
+    }
+
+    /**
+     * Simulating the spread from one seed set
+     *
+     * @param state spread state
+     * @return result of the simulation
+     */
+    @Benchmark
+    public SpreadResult simulate(SpreadState state) {
+        return state.analyzer.simulate(state.seedSets.get(0));
+    }
+
+    /**
+     * Simulating every seed set in parallel
+     *
+     * @param state spread state
+     * @return time to full infection of every seed set
+     */
+    @Benchmark
+    public int[] simulateBatch(SpreadState state) {
+        return state.analyzer.getTimesToFullInfection(state.seedSets);
+    }
+}
@@ -0,0 +1,105 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.network.CompactNetwork;
+import edu.kit.informatik.network.TopologyFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for writing and loading the binary topology file
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopologyFileBenchmark {
+
+    /**
+     * Compact copy of the generated network and a file which holds it
+     */
+    @State(Scope.Benchmark)
+    public static class FileState {
+        private CompactNetwork network;
+        private Path file;
+
+        /**
+         * Writes the generated network once
+         *
+         * @param state network state
+         * @throws IOException if the file can't be written
+         */
+        @Setup(Level.Trial)
+        public void setUp(NetworkState state) throws IOException {
+            network = new CompactNetwork(state.network);
+            file = Files.createTempFile("topology", ".bin");
+            TopologyFile.write(network, file);
+        }
+
+        /**
+         * Deletes the file
+         *
+         * @throws IOException if the file can't be deleted
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Writing the network
+     *
+     * @param state file state
+     * @throws IOException if the file can't be written
+     */
+    @Benchmark
+    public void write(FileState state) throws IOException {
+        TopologyFile.write(state.network, state.file);
+    }
+
+    /**
+     * Mapping the file, only the header gets checked
+     *
+     * @param state file state
+     * @return loaded network
+     * @throws IOException    if the file can't be read
+     * @throws ParseException never, the file was written before
+     */
+    @Benchmark
+    public CompactNetwork load(FileState state) throws IOException, ParseException {
+        return TopologyFile.load(state.file);
+    }
+
+    /**
+     * Mapping the file and verifying its checksum and contents
+     *
+     * @param state file state
+     * @return loaded network
+     * @throws IOException    if the file can't be read
+     * @throws ParseException never, the file was written before
+     */
+    @Benchmark
+    public CompactNetwork loadVerified(FileState state) throws IOException, ParseException {
+        return TopologyFile.load(state.file, true);
+    }
+}
@@ -0,0 +1,161 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded generator for random trees of different shapes, the same seed always creates the same tree
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public final class TopologyGenerator {
+    /**
+     * odd multiplier, multiplying with it is a bijection on int so every host gets a different address
+     */
+    private static final int ADDRESS_MULTIPLIER = 0x9E3779B1;
+    private static final int BALANCED_CHILDREN = 4;
+
+    /**
+     * Shapes of generated trees
+     */
+    public enum Shape {
+        /**
+         * every host has four children until the tree is full
+         */
+        BALANCED,
+        /**
+         * every host is connected to the previous one, like daisy chained switches
+         */
+        CHAIN,
+        /**
+         * one host which is connected to every other host
+         */
+        STAR,
+        /**
+         * every host is connected to a random host which was created before it
+         */
+        RANDOM
+    }
+
+    private final int[] addresses;
+    private final int[] parents;
+
+    /**
+     * Generates a new tree
+     *
+     * @param shape shape of the tree
+     * @param size  number of hosts, at least two
+     * @param seed  seed for addresses and random attachment
+     */
+    public TopologyGenerator(Shape shape, int size, long seed) {
+        if (size < 2) throw new IllegalArgumentException("a network needs at least two hosts");
+        Random random = new Random(seed);
+        int offset = random.nextInt();
+        addresses = new int[size];
+        parents = new int[size];
+        parents[0] = -1;
+        for (int host = 0; host < size; host++) {
+            addresses[host] = (host + offset) * ADDRESS_MULTIPLIER;
+            if (host == 0) continue;
+            switch (shape) {
+                case BALANCED:
+                    parents[host] = (host - 1) / BALANCED_CHILDREN;
+                    break;
+                case CHAIN:
+                    parents[host] = host - 1;
+                    break;
+                case STAR:
+                    parents[host] = 0;
+                    break;
+                default:
+                    parents[host] = random.nextInt(host);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Getting the number of hosts
+     *
+     * @return number of hosts
+     */
+    public int size() {
+        return addresses.length;
+    }
+
+    /**
+     * Getting the address of a host
+     *
+     * @param host number of the host, 0 is the root
+     * @return IP-Address
+     */
+    public IP address(int host) {
+        return new IP(addresses[host]);
+    }
+
+    /**
+     * Getting the parent of a host
+     *
+     * @param host number of the host
+     * @return number of the parent or -1 for the root
+     */
+    public int parent(int host) {
+        return parents[host];
+    }
+
+    /**
+     * Writing the tree in bracket notation, without recursion so that deep chains work as well
+     *
+     * @return tree in bracket notation rooted at host 0
+     */
+    public String toBracketNotation() {
+        int size = size();
+        int[] childCount = new int[size + 1];
+        for (int host = 1; host < size; host++) childCount[parents[host] + 1]++;
+        for (int host = 0; host < size; host++) childCount[host + 1] += childCount[host];
+        int[] children = new int[size];
+        int[] fill = Arrays.copyOf(childCount, size);
+        for (int host = 1; host < size; host++) children[fill[parents[host]]++] = host;
+
+        StringBuilder notation = new StringBuilder();
+        int[] stack = new int[size];
+        int[] next = new int[size];
+        int top = 0;
+        stack[0] = 0;
+        next[0] = childCount[0];
+        notation.append('(').append(address(0));
+        while (top >= 0) {
+            int host = stack[top];
+            if (next[top] == childCount[host + 1]) {
+                if (childCount[host + 1] > childCount[host]) notation.append(')');
+                top--;
+                continue;
+            }
+            int child = children[next[top]++];
+            notation.append(' ');
+            if (childCount[child + 1] > childCount[child]) notation.append('(');
+            notation.append(address(child));
+            stack[++top] = child;
+            next[top] = childCount[child];
+        }
+        return notation.toString();
+    }
+
+    /**
+     * Creating a network of the tree
+     *
+     * @return new network
+     */
+    public Network toNetwork() {
+        try {
+            return new Network(toBracketNotation());
+        } catch (ParseException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+import edu.kit.informatik.network.TopologyStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for journaling changes of a network and for recovering it from a checkpoint and a journal
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopologyStoreBenchmark {
+    private static final int FLAPS = 1024;
+
+    /**
+     * Copy of the generated network which is stored in a temporary directory, and a fixed sequence of connections
+     * of the generated tree
+     */
+    @State(Scope.Thread)
+    public static class StoreState {
+        private Network network;
+        private TopologyStore store;
+        private Path directory;
+        private IP[] children;
+        private IP[] parents;
+        private int next;
+
+        /**
+         * Creates the store with a checkpoint of the network and a journal of every connection going down and up once
+         *
+         * @param state network state
+         * @throws IOException if the store can't be written
+         */
+        @Setup(Level.Trial)
+        public void setUp(NetworkState state) throws IOException {
+            network = state.generator.toNetwork();
+            directory = Files.createTempDirectory("store");
+            store = new TopologyStore(directory);
+            store.track(network);
+            Random random = new Random(NetworkState.SEED);
+            children = new IP[FLAPS];
+            parents = new IP[FLAPS];
+            for (int i = 0; i < FLAPS; i++) {
+                int host = 1 + random.nextInt(state.size - 1);
+                children[i] = state.generator.address(host);
+                parents[i] = state.generator.address(state.generator.parent(host));
+            }
+            for (int i = 0; i < FLAPS; i++) {
+                flap(i);
+            }
+            store.sync();
+        }
+
+        /**
+         * Closes the store and deletes its directory
+         *
+         * @throws IOException if the files can't be deleted
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            store.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+
+        private boolean flap(int flap) {
+            IP child = children[flap];
+            IP parent = parents[flap];
+            network.disconnect(child, parent);
+            // a host without connections is removed, then the connection has to be added with the host
+            return network.connect(child, parent) || network.add(new Network(parent, List.of(child)));
+        }
+
+        private int nextFlap() {
+            next = (next + 1) % FLAPS;
+            return next;
+        }
+    }
+
+    /**
+     * Removing a connection of the tree and adding it again while both changes are journaled
+     *
+     * @param state store state
+     * @return true if the connection is back
+     */
+    @Benchmark
+    public boolean flapJournaled(StoreState state) {
+        return state.flap(state.nextFlap());
+    }
+
+    /**
+     * Loading the checkpoint and replaying the journal, like after a restart
+     *
+     * @param state store state
+     * @return recovered network
+     * @throws IOException    if the store can't be read
+     * @throws ParseException never, the checkpoint was written before
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Network recover(StoreState state) throws IOException, ParseException {
+        try (TopologyStore restarted = new TopologyStore(state.directory)) {
+            return restarted.recover();
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package edu.kit.informatik.analysis;
+
+import edu.kit.informatik.network.CompactNetwork;
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulates how an infection spreads through a network from a set of initially infected hosts. Every connection
+ * has a delay, one time unit by default, and blocked hosts neither get infected nor pass the infection on.
+ * <p>
+ * Because the network is a forest, the infection time of every host is its distance to the closest infected host,
+ * which gets computed with one pass from the leaves to the roots and one pass back. Subtrees which are small enough
+ * are processed in parallel by a fork join pool, the hosts above them are processed sequentially.
+ * <p>
+ * Delays and blocked hosts may only be changed while no simulation is running.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class SpreadAnalyzer {
+    /**
+     * delay of a connection if it wasn't set
+     */
+    public static final int DEFAULT_DELAY = 1;
+    /**
+     * hosts with at most this many hosts in their subtree are processed by one task
+     */
+    private static final int GRAIN = 1 << 14;
+    /**
+     * seed sets which are simulated one after another by one task of a batch
+     */
+    private static final int BATCH_GRAIN = 4;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final CompactNetwork network;
+    private final ForkJoinPool pool;
+    private final int[] parents;
+    /**
+     * delay of the connection between a host and its parent
+     */
+    private final int[] delays;
+    private final boolean[] blocked;
+    /**
+     * hosts with subtrees bigger than {@link #GRAIN}, every parent comes before its children
+     */
+    private final int[] topOrder;
+    /**
+     * every other host grouped by subtree, every parent comes before its children
+     */
+    private final int[] subtreeOrder;
+    private final int[] subtreeOffsets;
+
+    /**
+     * Creates an analyzer for a snapshot of a network
+     *
+     * @param network network to analyze, later changes of the network aren't visible to the analyzer
+     */
+    public SpreadAnalyzer(final Network network) {
+        this(new CompactNetwork(network));
+    }
+
+    /**
+     * Creates an analyzer which uses the common fork join pool
+     *
+     * @param network network to analyze
+     */
+    public SpreadAnalyzer(final CompactNetwork network) {
+        this(network, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an analyzer
+     *
+     * @param network network to analyze
+     * @param pool    pool which runs the parallel parts of a simulation
+     */
+    public SpreadAnalyzer(final CompactNetwork network, final ForkJoinPool pool) {
+        this.network = network;
+        this.pool = pool;
+        int size = network.size();
+        parents = new int[size];
+        delays = new int[size];
+        blocked = new boolean[size];
+        Arrays.fill(delays, DEFAULT_DELAY);
+
+        int[] order = new int[size];
+        int count = 0;
+        for (int host = 0; host < size; host++) {
+            parents[host] = network.parent(host);
+            if (parents[host] == -1) order[count++] = host;
+        }
+        for (int head = 0; head < count; head++) {
+            int host = order[head];
+            for (int k = 0; k < network.childCount(host); k++) order[count++] = network.child(host, k);
+        }
+        int[] subtreeSizes = new int[size];
+        Arrays.fill(subtreeSizes, 1);
+        for (int i = size - 1; i >= 0; i--) {
+            int host = order[i];
+            if (parents[host] != -1) subtreeSizes[parents[host]] += subtreeSizes[host];
+        }
+
+        // the parent of a big subtree is big as well, so the breadth first order keeps parents first
+        int topCount = 0;
+        for (int host : order) {
+            if (subtreeSizes[host] > GRAIN) order[topCount++] = host;
+        }
+        topOrder = Arrays.copyOf(order, topCount);
+        subtreeOrder = new int[size - topCount];
+        int subtrees = 0;
+        int[] offsets = new int[size - topCount + 1];
+        int filled = 0;
+        for (int host = 0; host < size; host++) {
+            if (subtreeSizes[host] > GRAIN || parents[host] != -1 && subtreeSizes[parents[host]] <= GRAIN) continue;
+            offsets[subtrees++] = filled;
+            int head = filled;
+            subtreeOrder[filled++] = host;
+            for (; head < filled; head++) {
+                int current = subtreeOrder[head];
+                for (int k = 0; k < network.childCount(current); k++) {
+                    subtreeOrder[filled++] = network.child(current, k);
+                }
+            }
+        }
+        offsets[subtrees] = filled;
+        subtreeOffsets = Arrays.copyOf(offsets, subtrees + 1);
+    }
+
+    /**
+     * Setting the delay of a connection
+     *
+     * @param first  first host
+     * @param second second host
+     * @param delay  time the infection needs to pass the connection, not negative
+     * @return true if both hosts are connected and the delay is valid
+     */
+    public boolean setDelay(final IP first, final IP second, final int delay) {
+        if (first == null || second == null || delay < 0) return false;
+        int firstHost = network.indexOf(first.toInt());
+        int secondHost = network.indexOf(second.toInt());
+        if (firstHost == -1 || secondHost == -1) return false;
+        if (parents[firstHost] == secondHost) {
+            delays[firstHost] = delay;
+        } else if (parents[secondHost] == firstHost) {
+            delays[secondHost] = delay;
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Blocking a host or releasing it again, a blocked host never gets infected
+     *
+     * @param host   host
+     * @param blocks true to block the host
+     * @return true if the host is part of the network
+     */
+    public boolean setBlocked(final IP host, final boolean blocks) {
+        if (host == null) return false;
+        int index = network.indexOf(host.toInt());
+        if (index == -1) return false;
+        blocked[index] = blocks;
+        return true;
+    }
+
+    /**
+     * Simulating the spread from one set of infected hosts, large networks are processed in parallel
+     *
+     * @param infected initially infected hosts, addresses which aren't part of the network are ignored
+     * @return infection time of every host
+     */
+    public SpreadResult simulate(final Collection<IP> infected) {
+        int[] times = new int[network.size()];
+        seed(times, infected);
+        if (topOrder.length == 0) {
+            spread(times, 0, subtreeOffsets.length - 1);
+        } else {
+            pool.invoke(new UpTask(times, 0, subtreeOffsets.length - 1));
+            spreadUpTop(times);
+            spreadDownTop(times);
+            pool.invoke(new DownTask(times, 0, subtreeOffsets.length - 1));
+        }
+        return new SpreadResult(network, toResult(times), countUnblocked());
+    }
+
+    /**
+     * Simulating many sets of infected hosts in parallel, every simulation itself runs sequentially
+     *
+     * @param seedSets sets of initially infected hosts
+     * @return time to full infection for every set, -1 if a host can't be reached
+     */
+    public int[] getTimesToFullInfection(final List<? extends Collection<IP>> seedSets) {
+        int[] results = new int[seedSets.size()];
+        if (!seedSets.isEmpty()) pool.invoke(new BatchTask(seedSets, results, 0, seedSets.size(), countUnblocked()));
+        return results;
+    }
+
+    private void seed(int[] times, Collection<IP> infected) {
+        Arrays.fill(times, UNREACHED);
+        for (IP ip : infected) {
+            int host = ip == null ? -1 : network.indexOf(ip.toInt());
+            if (host != -1 && !blocked[host]) times[host] = 0;
+        }
+    }
+
+    /**
+     * Running both passes over a range of subtrees and the hosts above them without any parallelism
+     *
+     * @param times seeded infection times
+     * @param from  first subtree
+     * @param to    subtree after the last one
+     */
+    private void spread(int[] times, int from, int to) {
+        spreadUp(times, from, to);
+        spreadUpTop(times);
+        spreadDownTop(times);
+        spreadDown(times, from, to);
+    }
+
+    /**
+     * Moving the closest infection inside each subtree up to its root. Roots of subtrees don't update their parent,
+     * so that parallel tasks never write to the same host.
+     */
+    private void spreadUp(int[] times, int from, int to) {
+        for (int subtree = from; subtree < to; subtree++) {
+            for (int i = subtreeOffsets[subtree + 1] - 1; i > subtreeOffsets[subtree]; i--) {
+                int host = subtreeOrder[i];
+                int parent = parents[host];
+                if (blocked[host] || blocked[parent]) continue;
+                times[parent] = Math.min(times[parent], later(times[host], delays[host]));
+            }
+        }
+    }
+
+    private void spreadUpTop(int[] times) {
+        for (int subtree = 0; subtree < subtreeOffsets.length - 1; subtree++) {
+            int host = subtreeOrder[subtreeOffsets[subtree]];
+            int parent = parents[host];
+            if (parent == -1 || blocked[host] || blocked[parent]) continue;
+            times[parent] = Math.min(times[parent], later(times[host], delays[host]));
+        }
+        for (int i = topOrder.length - 1; i >= 0; i--) {
+            int host = topOrder[i];
+            int parent = parents[host];
+            if (parent == -1 || blocked[host] || blocked[parent]) continue;
+            times[parent] = Math.min(times[parent], later(times[host], delays[host]));
+        }
+    }
+
+    private void spreadDownTop(int[] times) {
+        for (int host : topOrder) {
+            spreadFromParent(times, host);
+        }
+    }
+
+    private void spreadDown(int[] times, int from, int to) {
+        for (int i = subtreeOffsets[from]; i < subtreeOffsets[to]; i++) {
+            spreadFromParent(times, subtreeOrder[i]);
+        }
+    }
+
+    private void spreadFromParent(int[] times, int host) {
+        int parent = parents[host];
+        if (parent == -1 || blocked[host] || blocked[parent]) return;
+        times[host] = Math.min(times[host], later(times[parent], delays[host]));
+    }
+
+    private static int later(int time, int delay) {
+        if (time == UNREACHED) return UNREACHED;
+        return (int) Math.min((long) time + delay, UNREACHED - 1);
+    }
+
+    private static int[] toResult(int[] times) {
+        for (int i = 0; i < times.length; i++) {
+            if (times[i] == UNREACHED) times[i] = SpreadResult.NOT_INFECTED;
+        }
+        return times;
+    }
+
+    private int countUnblocked() {
+        int count = 0;
+        for (boolean isBlocked : blocked) {
+            if (!isBlocked) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Task which splits a range of subtrees until it covers at most {@link #GRAIN} hosts or a single subtree
+     */
+    private abstract class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient int[] times;
+        private final int from;
+        private final int to;
+
+        SubtreeTask(int[] times, int from, int to) {
+            this.times = times;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1 || subtreeOffsets[to] - subtreeOffsets[from] <= GRAIN) {
+                run(times, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(create(times, from, middle), create(times, middle, to));
+        }
+
+        abstract SubtreeTask create(int[] times, int from, int to);
+
+        abstract void run(int[] times, int from, int to);
+    }
+
+    /**
+     * First pass over a range of subtrees
+     */
+    private final class UpTask extends SubtreeTask {
+        private static final long serialVersionUID = 1L;
+
+        UpTask(int[] times, int from, int to) {
+            super(times, from, to);
+        }
+
+        @Override
+        SubtreeTask create(int[] times, int from, int to) {
+            return new UpTask(times, from, to);
+        }
+
+        @Override
+        void run(int[] times, int from, int to) {
+            spreadUp(times, from, to);
+        }
+    }
+
+    /**
+     * Second pass over a range of subtrees
+     */
+    private final class DownTask extends SubtreeTask {
+        private static final long serialVersionUID = 1L;
+
+        DownTask(int[] times, int from, int to) {
+            super(times, from, to);
+        }
+
+        @Override
+        SubtreeTask create(int[] times, int from, int to) {
+            return new DownTask(times, from, to);
+        }
+
+        @Override
+        void run(int[] times, int from, int to) {
+            spreadDown(times, from, to);
+        }
+    }
+
+    /**
+     * Task which splits a range of seed sets, every leaf task reuses one array for all of its simulations
+     */
+    private final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient List<? extends Collection<IP>> seedSets;
+        private final int[] results;
+        private final int from;
+        private final int to;
+        private final int unblocked;
+
+        BatchTask(List<? extends Collection<IP>> seedSets, int[] results, int from, int to, int unblocked) {
+            this.seedSets = seedSets;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.unblocked = unblocked;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(seedSets, results, from, middle, unblocked),
+                    new BatchTask(seedSets, results, middle, to, unblocked));
+                return;
+            }
+            int[] times = new int[network.size()];
+            for (int set = from; set < to; set++) {
+                seed(times, seedSets.get(set));
+                spread(times, 0, subtreeOffsets.length - 1);
+                int infected = 0;
+                int last = 0;
+                for (int time : times) {
+                    if (time == UNREACHED) continue;
+                    infected++;
+                    last = Math.max(last, time);
+                }
+                results[set] = infected == unblocked ? last : SpreadResult.NOT_INFECTED;
+            }
+        }
+    }
+}
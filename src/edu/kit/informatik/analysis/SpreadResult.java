@@ -0,0 +1,148 @@
+package edu.kit.informatik.analysis;
+
+import edu.kit.informatik.network.CompactNetwork;
+import edu.kit.informatik.network.IP;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Result of one simulation, the infection time of every host of the network
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class SpreadResult {
+    /**
+     * time of hosts which never get infected
+     */
+    public static final int NOT_INFECTED = -1;
+    private static final int HOST_BITS = 32;
+    private static final long HOST_MASK = 0xFFFFFFFFL;
+
+    private final CompactNetwork network;
+    private final int[] times;
+    private final int unblocked;
+    private long[] waves;
+
+    /**
+     * Creates a new result
+     *
+     * @param network   simulated network
+     * @param times     infection time of every host in ascending address order
+     * @param unblocked number of hosts which weren't blocked
+     */
+    SpreadResult(final CompactNetwork network, final int[] times, final int unblocked) {
+        this.network = network;
+        this.times = times;
+        this.unblocked = unblocked;
+    }
+
+    /**
+     * Getting the time a host gets infected
+     *
+     * @param host IP-Address
+     * @return infection time or {@link #NOT_INFECTED} if the host never gets infected or isn't part of the network
+     */
+    public int getInfectionTime(final IP host) {
+        if (host == null) return NOT_INFECTED;
+        int index = network.indexOf(host.toInt());
+        return index == -1 ? NOT_INFECTED : times[index];
+    }
+
+    /**
+     * Getting the infection time of every host
+     *
+     * @return infection times in the same order as the addresses of {@link CompactNetwork#list()}
+     */
+    public int[] getInfectionTimes() {
+        return times.clone();
+    }
+
+    /**
+     * Getting the number of hosts which get infected
+     *
+     * @return number of infected hosts
+     */
+    public int getInfectedCount() {
+        return getWaves().length;
+    }
+
+    /**
+     * Getting the time until every host which isn't blocked is infected
+     *
+     * @return time of the last infection or {@link #NOT_INFECTED} if some host is never reached
+     */
+    public int getTimeToFullInfection() {
+        long[] sorted = getWaves();
+        if (sorted.length == 0 || sorted.length != unblocked) return NOT_INFECTED;
+        return (int) (sorted[sorted.length - 1] >>> HOST_BITS);
+    }
+
+    /**
+     * Getting every point in time at which at least one host gets infected
+     *
+     * @return infection times in ascending order
+     */
+    public int[] getWaveTimes() {
+        long[] sorted = getWaves();
+        int[] waveTimes = new int[sorted.length];
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            int time = (int) (sorted[i] >>> HOST_BITS);
+            if (count == 0 || waveTimes[count - 1] != time) waveTimes[count++] = time;
+        }
+        return Arrays.copyOf(waveTimes, count);
+    }
+
+    /**
+     * Getting the number of hosts which get infected at each point in time
+     *
+     * @return number of hosts for every entry of {@link #getWaveTimes()}
+     */
+    public int[] getWaveSizes() {
+        long[] sorted = getWaves();
+        int[] sizes = new int[sorted.length];
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || (sorted[i] >>> HOST_BITS) != (sorted[i - 1] >>> HOST_BITS)) count++;
+            sizes[count - 1]++;
+        }
+        return Arrays.copyOf(sizes, count);
+    }
+
+    /**
+     * Getting the hosts which get infected at each point in time
+     *
+     * @return list of lists where every list contains the addresses of one wave in ascending order
+     */
+    public List<List<IP>> getWaveHosts() {
+        long[] sorted = getWaves();
+        List<List<IP>> hosts = new ArrayList<>();
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || (sorted[i] >>> HOST_BITS) != (sorted[i - 1] >>> HOST_BITS)) hosts.add(new ArrayList<>());
+            hosts.get(hosts.size() - 1).add(IP.of(network.address((int) (sorted[i] & HOST_MASK))));
+        }
+        return hosts;
+    }
+
+    /**
+     * Getting the infected hosts sorted by infection time and address, time and host index are packed into a long
+     *
+     * @return sorted infections
+     */
+    private long[] getWaves() {
+        if (waves == null) {
+            long[] sorted = new long[times.length];
+            int count = 0;
+            for (int host = 0; host < times.length; host++) {
+                if (times[host] != NOT_INFECTED) sorted[count++] = (long) times[host] << HOST_BITS | host;
+            }
+            sorted = Arrays.copyOf(sorted, count);
+            Arrays.sort(sorted);
+            waves = sorted;
+        }
+        return waves;
+    }
+}
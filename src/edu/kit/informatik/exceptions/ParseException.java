@@ -7,6 +7,8 @@
  * @version 1.0
  */
 public class ParseException extends Exception {
+    private final int position;
+
     /**
      * Constructor for ParsingException
      *
@@ -14,5 +16,26 @@ public class ParseException extends Exception {
      */
     public ParseException(String message) {
         super(message);
+        this.position = -1;
+    }
+
+    /**
+     * Constructor for ParsingException which reports where the input is invalid
+     *
+     * @param message  error reason
+     * @param position index of the character at which parsing failed
+     */
+    public ParseException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+    }
+
+    /**
+     * Getting the position of the error
+     *
+     * @return index of the character at which parsing failed or -1 if it is unknown
+     */
+    public int getPosition() {
+        return position;
     }
 }
@@ -0,0 +1,234 @@
+package edu.kit.informatik.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonical form of unrooted trees which ignores addresses. Every tree gets rooted at its center, one host or the
+ * connection between two hosts, and is then labeled bottom up (AHU). A label stands for the sorted labels of the
+ * children, so two trees have the same label if and only if they have the same shape, as long as both were labeled
+ * by the same instance. The static signature is a hash of the same form which can be compared across instances.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class CanonicalForm {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long MIX_FIRST = 0xBF58476D1CE4E5B9L;
+    private static final long MIX_SECOND = 0x94D049BB133111EBL;
+    private static final int MIX_SHIFT_FIRST = 30;
+    private static final int MIX_SHIFT_SECOND = 27;
+    private static final int MIX_SHIFT_THIRD = 31;
+    /**
+     * first entry of the key of a tree rooted at one host, child labels are never negative
+     */
+    private static final int HOST_CENTER = -1;
+    /**
+     * first entry of the key of a tree rooted at the connection between two hosts
+     */
+    private static final int EDGE_CENTER = -2;
+
+    private final Map<Key, Integer> labels = new HashMap<>();
+
+    /**
+     * Labeling the shape of a subnet, trees which were labeled by this instance have the same label if and only if
+     * they are isomorphic
+     *
+     * @param subnet any host of the subnet
+     * @return label of the subnet
+     */
+    public int label(Node subnet) {
+        Tree tree = new Tree(subnet);
+        int[] values = new int[tree.size];
+        int[] buffer = new int[tree.size];
+        for (int i = tree.size - 1; i >= 0; i--) {
+            int host = tree.order[i];
+            int count = tree.children(host, buffer);
+            int[] children = Arrays.copyOf(buffer, count);
+            for (int k = 0; k < count; k++) children[k] = values[children[k]];
+            Arrays.sort(children);
+            values[host] = labelOf(children);
+        }
+        if (tree.centers.length == 1) return labelOf(new int[] {HOST_CENTER, values[tree.centers[0]]});
+        int first = values[tree.centers[0]];
+        int second = values[tree.centers[1]];
+        return labelOf(new int[] {EDGE_CENTER, Math.min(first, second), Math.max(first, second)});
+    }
+
+    private int labelOf(int[] key) {
+        return labels.computeIfAbsent(new Key(key), k -> labels.size());
+    }
+
+    /**
+     * Hashing the shape of a subnet, isomorphic trees always get the same signature
+     *
+     * @param subnet any host of the subnet
+     * @return 64 bit signature of the shape
+     */
+    public static long signature(Node subnet) {
+        Tree tree = new Tree(subnet);
+        long[] values = new long[tree.size];
+        int[] buffer = new int[tree.size];
+        long[] childValues = new long[tree.size];
+        for (int i = tree.size - 1; i >= 0; i--) {
+            int host = tree.order[i];
+            int count = tree.children(host, buffer);
+            for (int k = 0; k < count; k++) childValues[k] = values[buffer[k]];
+            Arrays.sort(childValues, 0, count);
+            long hash = mix(count);
+            for (int k = 0; k < count; k++) hash = mix(hash * GOLDEN_GAMMA + childValues[k]);
+            values[host] = hash;
+        }
+        if (tree.centers.length == 1) return mix(HOST_CENTER ^ values[tree.centers[0]]);
+        long first = values[tree.centers[0]];
+        long second = values[tree.centers[1]];
+        return mix(mix(EDGE_CENTER ^ Math.min(first, second)) * GOLDEN_GAMMA + Math.max(first, second));
+    }
+
+    /**
+     * Finalizer of SplitMix64, spreads every input bit over the whole result
+     *
+     * @param value value to mix
+     * @return mixed value
+     */
+    private static long mix(long value) {
+        long result = value + GOLDEN_GAMMA;
+        result = (result ^ (result >>> MIX_SHIFT_FIRST)) * MIX_FIRST;
+        result = (result ^ (result >>> MIX_SHIFT_SECOND)) * MIX_SECOND;
+        return result ^ (result >>> MIX_SHIFT_THIRD);
+    }
+
+    /**
+     * Subnet as arrays, rooted at its center and ordered so that every host comes after its parent
+     */
+    private static final class Tree {
+        private final int size;
+        private final int[] offsets;
+        private final int[] neighbours;
+        private final int[] parents;
+        private final int[] order;
+        private final int[] centers;
+
+        private Tree(Node subnet) {
+            Node root = subnet;
+            while (root.getParent() != null) root = root.getParent();
+            List<Node> nodes = new ArrayList<>();
+            nodes.add(root);
+            for (int head = 0; head < nodes.size(); head++) nodes.addAll(nodes.get(head).getChildren());
+            size = nodes.size();
+
+            // adjacency of the undirected tree in compressed rows
+            IntIntMap positions = new IntIntMap(size);
+            for (int i = 0; i < size; i++) positions.put(nodes.get(i).getAddress().toInt(), i);
+            int[] storedParents = new int[size];
+            offsets = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                Node parent = nodes.get(i).getParent();
+                storedParents[i] = parent == null ? -1 : positions.get(parent.getAddress().toInt());
+                if (storedParents[i] == -1) continue;
+                offsets[i + 1]++;
+                offsets[storedParents[i] + 1]++;
+            }
+            for (int i = 0; i < size; i++) offsets[i + 1] += offsets[i];
+            neighbours = new int[offsets[size]];
+            int[] fill = Arrays.copyOf(offsets, size);
+            for (int i = 0; i < size; i++) {
+                if (storedParents[i] == -1) continue;
+                neighbours[fill[i]++] = storedParents[i];
+                neighbours[fill[storedParents[i]]++] = i;
+            }
+
+            centers = findCenters();
+            parents = new int[size];
+            order = new int[size];
+            Arrays.fill(parents, -1);
+            int tail = 0;
+            for (int center : centers) order[tail++] = center;
+            for (int head = 0; head < tail; head++) {
+                int host = order[head];
+                for (int k = offsets[host]; k < offsets[host + 1]; k++) {
+                    int next = neighbours[k];
+                    if (next == parents[host] || isCenterEdge(host, next)) continue;
+                    parents[next] = host;
+                    order[tail++] = next;
+                }
+            }
+        }
+
+        /**
+         * Removing all leaves round by round until one or two hosts are left
+         *
+         * @return one or two centers
+         */
+        private int[] findCenters() {
+            if (size == 1) return new int[] {0};
+            int[] degrees = new int[size];
+            int[] leaves = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                degrees[i] = offsets[i + 1] - offsets[i];
+                if (degrees[i] == 1) leaves[count++] = i;
+            }
+            int remaining = size;
+            int start = 0;
+            while (remaining > 2) {
+                int end = count;
+                remaining -= end - start;
+                for (; start < end; start++) {
+                    int leaf = leaves[start];
+                    for (int k = offsets[leaf]; k < offsets[leaf + 1]; k++) {
+                        if (--degrees[neighbours[k]] == 1) leaves[count++] = neighbours[k];
+                    }
+                }
+            }
+            return Arrays.copyOfRange(leaves, start, count);
+        }
+
+        private boolean isCenterEdge(int first, int second) {
+            return centers.length == 2 && (first == centers[0] && second == centers[1]
+                || first == centers[1] && second == centers[0]);
+        }
+
+        /**
+         * Writing the children of a host in the centered tree into a buffer
+         *
+         * @param host   host
+         * @param buffer buffer which is big enough for every child
+         * @return number of children
+         */
+        private int children(int host, int[] buffer) {
+            int count = 0;
+            for (int k = offsets[host]; k < offsets[host + 1]; k++) {
+                int next = neighbours[k];
+                if (next != parents[host] && !isCenterEdge(host, next)) buffer[count++] = next;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Sorted child labels as a hash map key
+     */
+    private static final class Key {
+        private final int[] values;
+        private final int hash;
+
+        private Key(int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(values, ((Key) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
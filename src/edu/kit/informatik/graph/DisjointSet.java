@@ -0,0 +1,123 @@
+package edu.kit.informatik.graph;
+
+import java.util.Arrays;
+
+/**
+ * Union find structure over packed IP-Addresses which tells if two addresses are in the same subnet.
+ * Sets can only be merged, but an address can be removed and added again as a set of its own. Its old slot stays
+ * behind as an inner link of the set it was in, so when a subnet falls apart the smaller part is moved out one
+ * address after another. Unused slots pile up that way, {@link #unused()} tells when a rebuild is worth it.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class DisjointSet {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private IntIntMap slots = new IntIntMap();
+    private int[] parents = new int[DEFAULT_CAPACITY];
+    private byte[] ranks = new byte[DEFAULT_CAPACITY];
+    private int size;
+
+    /**
+     * Adding an address as its own set if it isn't known yet
+     *
+     * @param key IP-Address as int
+     * @return slot of the address
+     */
+    public int add(int key) {
+        int slot = slots.get(key);
+        if (slot != IntIntMap.MISSING) return slot;
+        if (size == parents.length) {
+            parents = Arrays.copyOf(parents, size * 2);
+            ranks = Arrays.copyOf(ranks, size * 2);
+        }
+        slots.put(key, size);
+        parents[size] = size;
+        ranks[size] = 0;
+        return size++;
+    }
+
+    /**
+     * Getting the representative of the set of an address
+     *
+     * @param key IP-Address as int
+     * @return slot of the representative or -1 if the address isn't known
+     */
+    public int find(int key) {
+        int slot = slots.get(key);
+        if (slot == IntIntMap.MISSING) return -1;
+        return findSlot(slot);
+    }
+
+    private int findSlot(int slot) {
+        int current = slot;
+        while (parents[current] != current) {
+            // path halving, every visited slot skips its parent
+            parents[current] = parents[parents[current]];
+            current = parents[current];
+        }
+        return current;
+    }
+
+    /**
+     * Merging the sets of two addresses, unknown addresses get added first
+     *
+     * @param first  first IP-Address as int
+     * @param second second IP-Address as int
+     * @return true if the sets were different before
+     */
+    public boolean union(int first, int second) {
+        int firstRoot = findSlot(add(first));
+        int secondRoot = findSlot(add(second));
+        if (firstRoot == secondRoot) return false;
+        if (ranks[firstRoot] < ranks[secondRoot]) {
+            parents[firstRoot] = secondRoot;
+        } else {
+            parents[secondRoot] = firstRoot;
+            if (ranks[firstRoot] == ranks[secondRoot]) ranks[firstRoot]++;
+        }
+        return true;
+    }
+
+    /**
+     * checks if two addresses are in the same set
+     *
+     * @param first  first IP-Address as int
+     * @param second second IP-Address as int
+     * @return true if both addresses are known and in the same set
+     */
+    public boolean connected(int first, int second) {
+        int firstRoot = find(first);
+        return firstRoot != -1 && firstRoot == find(second);
+    }
+
+    /**
+     * Removing an address, its slot keeps linking the other addresses of its set
+     *
+     * @param key IP-Address as int
+     * @return true if the address was known
+     */
+    public boolean remove(int key) {
+        return slots.remove(key) != IntIntMap.MISSING;
+    }
+
+    /**
+     * Getting the number of slots which no address uses anymore
+     *
+     * @return number of unused slots
+     */
+    public int unused() {
+        return size - slots.size();
+    }
+
+    /**
+     * Removing every address
+     */
+    public void clear() {
+        slots = new IntIntMap();
+        parents = new int[DEFAULT_CAPACITY];
+        ranks = new byte[DEFAULT_CAPACITY];
+        size = 0;
+    }
+}
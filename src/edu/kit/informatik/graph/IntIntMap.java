@@ -0,0 +1,140 @@
+package edu.kit.informatik.graph;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from int keys to non negative int values
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class IntIntMap {
+    /**
+     * value which is returned for keys without a mapping
+     */
+    public static final int MISSING = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int HASH_SHIFT = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates a new empty map
+     */
+    public IntIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty map which can hold the expected number of entries without resizing
+     *
+     * @param expectedSize expected number of entries
+     */
+    public IntIntMap(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < expectedSize * 2) capacity *= 2;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+    }
+
+    /**
+     * Getting the value of a key
+     *
+     * @param key key
+     * @return value or {@link #MISSING} if there is none
+     */
+    public int get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != MISSING; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return values[slot];
+        }
+        return MISSING;
+    }
+
+    /**
+     * Setting the value of a key
+     *
+     * @param key   key
+     * @param value non negative value
+     * @return previous value or {@link #MISSING} if there was none
+     */
+    public int put(int key, int value) {
+        if (value < 0) throw new IllegalArgumentException("values have to be non negative");
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (; values[slot] != MISSING; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) resize(keys.length * 2);
+        return MISSING;
+    }
+
+    /**
+     * Removing the mapping of a key
+     *
+     * @param key key
+     * @return removed value or {@link #MISSING} if there was none
+     */
+    public int remove(int key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (; values[slot] != MISSING; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) break;
+        }
+        int removed = values[slot];
+        if (removed == MISSING) return MISSING;
+        // backward shift deletion so that no tombstones are needed
+        int free = slot;
+        for (int next = (free + 1) & mask; values[next] != MISSING; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        values[free] = MISSING;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Getting the number of mappings
+     *
+     * @return number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == MISSING) continue;
+            int slot = slot(oldKeys[i], mask);
+            while (values[slot] != MISSING) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int slot(int key, int mask) {
+        int hash = key * HASH_MULTIPLIER;
+        return (hash ^ (hash >>> HASH_SHIFT)) & mask;
+    }
+}
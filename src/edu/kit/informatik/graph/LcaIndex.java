@@ -0,0 +1,207 @@
+package edu.kit.informatik.graph;
+
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.utils.Graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lowest common ancestor index over every subnet of a network, built from an euler tour and a sparse table.
+ * The index is a snapshot of the stored orientation, so it has to be rebuilt after the network changed.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class LcaIndex {
+
+    private final IntIntMap ids;
+    private final IP[] addresses;
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] component;
+    private final int[] first;
+    private final int[][] sparse;
+
+    /**
+     * Creates the index for a list of subnets
+     *
+     * @param subnets subnets of a network, every entry is resolved to the root of its tree
+     */
+    public LcaIndex(List<Node> subnets) {
+        Map<Node, Boolean> roots = new IdentityHashMap<>();
+        List<Node> trees = new ArrayList<>();
+        for (Node subnet : subnets) {
+            Node root = Graph.getSubnetRoot(subnet);
+            if (roots.put(root, Boolean.TRUE) == null) trees.add(root);
+        }
+        int size = countNodes(trees);
+        ids = new IntIntMap(size);
+        addresses = new IP[size];
+        parent = new int[size];
+        depth = new int[size];
+        component = new int[size];
+        first = new int[size];
+        int[] euler = new int[Math.max(1, 2 * size - trees.size())];
+        int eulerLength = 0;
+        int nextId = 0;
+
+        Node[] nodeStack = new Node[size];
+        int[] idStack = new int[size];
+        int[] childStack = new int[size];
+        for (int tree = 0; tree < trees.size(); tree++) {
+            int top = 0;
+            nodeStack[0] = trees.get(tree);
+            idStack[0] = enter(trees.get(tree), nextId++, -1, tree);
+            childStack[0] = 0;
+            euler[eulerLength++] = idStack[0];
+            while (top >= 0) {
+                Node node = nodeStack[top];
+                if (childStack[top] < node.getChildren().size()) {
+                    Node child = node.getChildren().get(childStack[top]++);
+                    int id = enter(child, nextId++, idStack[top], tree);
+                    euler[eulerLength++] = id;
+                    nodeStack[++top] = child;
+                    idStack[top] = id;
+                    childStack[top] = 0;
+                } else if (--top >= 0) {
+                    // returning to the parent adds it to the tour again
+                    euler[eulerLength++] = idStack[top];
+                }
+            }
+        }
+        for (int i = eulerLength - 1; i >= 0; i--) {
+            first[euler[i]] = i;
+        }
+
+        int levels = 1;
+        while ((1 << levels) <= eulerLength) levels++;
+        sparse = new int[levels][];
+        sparse[0] = euler;
+        for (int level = 1; level < levels; level++) {
+            int half = 1 << (level - 1);
+            int[] previous = sparse[level - 1];
+            int[] row = new int[eulerLength - (1 << level) + 1];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = shallower(previous[i], previous[i + half]);
+            }
+            sparse[level] = row;
+        }
+    }
+
+    private static int countNodes(List<Node> trees) {
+        int count = 0;
+        Deque<Node> stack = new ArrayDeque<>(trees);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            count++;
+            for (Node child : node.getChildren()) {
+                stack.push(child);
+            }
+        }
+        return count;
+    }
+
+    private int enter(Node node, int id, int parentId, int tree) {
+        ids.put(node.getAddress().toInt(), id);
+        addresses[id] = node.getAddress();
+        parent[id] = parentId;
+        depth[id] = parentId == -1 ? 0 : depth[parentId] + 1;
+        component[id] = tree;
+        return id;
+    }
+
+    private int shallower(int first, int second) {
+        return depth[first] <= depth[second] ? first : second;
+    }
+
+    /**
+     * Getting the id of an IP-Address inside of the index
+     *
+     * @param address IP-Address
+     * @return id or -1 if the address isn't indexed
+     */
+    public int getId(IP address) {
+        return ids.get(address.toInt());
+    }
+
+    /**
+     * Getting the lowest common ancestor of two ids
+     *
+     * @param first  id of the first node
+     * @param second id of the second node
+     * @return id of the lowest common ancestor or -1 if both nodes are in different subnets
+     */
+    public int getLca(int first, int second) {
+        if (component[first] != component[second]) return -1;
+        int left = Math.min(this.first[first], this.first[second]);
+        int right = Math.max(this.first[first], this.first[second]);
+        int level = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(right - left + 1);
+        return shallower(sparse[level][left], sparse[level][right - (1 << level) + 1]);
+    }
+
+    /**
+     * Getting the number of connections between two ids
+     *
+     * @param first  id of the first node
+     * @param second id of the second node
+     * @return length of the route or -1 if both nodes are in different subnets
+     */
+    public int getDistance(int first, int second) {
+        int lca = getLca(first, second);
+        if (lca == -1) return -1;
+        return depth[first] + depth[second] - 2 * depth[lca];
+    }
+
+    /**
+     * Getting the route between two ids
+     *
+     * @param start id of the starting point
+     * @param end   id of the destination
+     * @return list of IPs from start to end, empty if both nodes are in different subnets
+     */
+    public List<IP> getRoute(int start, int end) {
+        int lca = getLca(start, end);
+        List<IP> path = new ArrayList<>();
+        if (lca == -1) return path;
+        for (int cursor = start; cursor != lca; cursor = parent[cursor]) {
+            path.add(addresses[cursor]);
+        }
+        path.add(addresses[lca]);
+        int split = path.size();
+        for (int cursor = end; cursor != lca; cursor = parent[cursor]) {
+            path.add(addresses[cursor]);
+        }
+        Collections.reverse(path.subList(split, path.size()));
+        return path;
+    }
+
+    /**
+     * Getting the route between two ids as a view on the address table, the length is known from the depths so
+     * the route gets written straight into an array of the right size
+     *
+     * @param start id of the starting point
+     * @param end   id of the destination
+     * @return route from start to end, empty if both nodes are in different subnets
+     */
+    public Route getRouteView(int start, int end) {
+        int lca = getLca(start, end);
+        if (lca == -1) return new Route(addresses, new int[0]);
+        int[] ids = new int[depth[start] + depth[end] - 2 * depth[lca] + 1];
+        int position = 0;
+        for (int cursor = start; cursor != lca; cursor = parent[cursor]) {
+            ids[position++] = cursor;
+        }
+        ids[position] = lca;
+        position = ids.length - 1;
+        for (int cursor = end; cursor != lca; cursor = parent[cursor]) {
+            ids[position--] = cursor;
+        }
+        return new Route(addresses, ids);
+    }
+}
@@ -0,0 +1,379 @@
+package edu.kit.informatik.graph;
+
+import java.util.Arrays;
+
+/**
+ * Forest of packed IP-Addresses which supports adding and removing connections, like {@link DisjointSet} but with
+ * removals. Every tree is split into paths which are stored as splay trees ordered by depth, a reversal flag turns
+ * a path around lazily, so any host can be made the root of its tree. Linking, cutting, connectivity and distances
+ * cost amortized O(log n), a route additionally costs its length.
+ * <p>
+ * Splay trees are stored in parallel int arrays, a node is the child of its parent in the splay tree or only points
+ * to it, then the parent is the next host of the path above (path parent).
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class LinkCutTree {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    private final IntIntMap slots = new IntIntMap();
+    private int[] keys = new int[DEFAULT_CAPACITY];
+    private int[] left = new int[DEFAULT_CAPACITY];
+    private int[] right = new int[DEFAULT_CAPACITY];
+    private int[] parents = new int[DEFAULT_CAPACITY];
+    private int[] sizes = new int[DEFAULT_CAPACITY];
+    private boolean[] reversed = new boolean[DEFAULT_CAPACITY];
+    /**
+     * number of connections of every host, children below a root only point to it, so it can't tell on its own
+     */
+    private int[] degrees = new int[DEFAULT_CAPACITY];
+    private int[] stack = new int[DEFAULT_CAPACITY];
+    private int[] free = new int[DEFAULT_CAPACITY];
+    private int freeCount;
+    private int used;
+
+    /**
+     * Adding an address as a tree of its own if it isn't known yet
+     *
+     * @param key IP-Address as int
+     * @return true if the address was added
+     */
+    public boolean add(int key) {
+        if (slots.get(key) != IntIntMap.MISSING) return false;
+        int slot;
+        if (freeCount > 0) {
+            slot = free[--freeCount];
+        } else {
+            if (used == keys.length) grow(used * 2);
+            slot = used++;
+        }
+        slots.put(key, slot);
+        keys[slot] = key;
+        left[slot] = NONE;
+        right[slot] = NONE;
+        parents[slot] = NONE;
+        sizes[slot] = 1;
+        reversed[slot] = false;
+        degrees[slot] = 0;
+        return true;
+    }
+
+    /**
+     * Removing an address which has no connections
+     *
+     * @param key IP-Address as int
+     * @return true if the address was removed
+     */
+    public boolean remove(int key) {
+        int slot = slots.get(key);
+        if (slot == IntIntMap.MISSING) return false;
+        if (degrees[slot] != 0) {
+            throw new IllegalStateException("only hosts without connections can be removed");
+        }
+        slots.remove(key);
+        free[freeCount++] = slot;
+        return true;
+    }
+
+    /**
+     * Getting the number of connections of an address
+     *
+     * @param key IP-Address as int
+     * @return number of neighbours, 0 if the address is unknown
+     */
+    public int degree(int key) {
+        int slot = slots.get(key);
+        return slot == IntIntMap.MISSING ? 0 : degrees[slot];
+    }
+
+    /**
+     * Checking if an address is known
+     *
+     * @param key IP-Address as int
+     * @return true if the address was added before
+     */
+    public boolean contains(int key) {
+        return slots.get(key) != IntIntMap.MISSING;
+    }
+
+    /**
+     * Getting the number of addresses
+     *
+     * @return number of addresses
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Getting every address in no particular order
+     *
+     * @return array of all addresses
+     */
+    public int[] keys() {
+        int[] all = new int[size()];
+        int count = 0;
+        for (int slot = 0; slot < used; slot++) {
+            if (slots.get(keys[slot]) == slot) all[count++] = keys[slot];
+        }
+        return all;
+    }
+
+    /**
+     * Checking if two addresses are in the same tree
+     *
+     * @param first  first IP-Address as int
+     * @param second second IP-Address as int
+     * @return true if there is a route between both, false if one of them is unknown
+     */
+    public boolean connected(int first, int second) {
+        int firstSlot = slots.get(first);
+        int secondSlot = slots.get(second);
+        if (firstSlot == IntIntMap.MISSING || secondSlot == IntIntMap.MISSING) return false;
+        return firstSlot == secondSlot || findRoot(firstSlot) == findRoot(secondSlot);
+    }
+
+    /**
+     * Connecting two addresses of different trees
+     *
+     * @param first  first IP-Address as int
+     * @param second second IP-Address as int
+     * @return true if both were connected, false if they are unknown or already in the same tree
+     */
+    public boolean link(int first, int second) {
+        if (first == second || !contains(first) || !contains(second) || connected(first, second)) return false;
+        int firstSlot = slots.get(first);
+        evertSlot(firstSlot);
+        int secondSlot = slots.get(second);
+        parents[firstSlot] = secondSlot;
+        degrees[firstSlot]++;
+        degrees[secondSlot]++;
+        return true;
+    }
+
+    /**
+     * Removing the connection between two addresses
+     *
+     * @param first  first IP-Address as int
+     * @param second second IP-Address as int
+     * @return true if the connection existed
+     */
+    public boolean cut(int first, int second) {
+        if (first == second || !connected(first, second)) return false;
+        int firstSlot = slots.get(first);
+        int secondSlot = slots.get(second);
+        evertSlot(firstSlot);
+        access(secondSlot);
+        // the path from first to second has two hosts only if they are neighbours
+        if (sizes[secondSlot] != 2) return false;
+        left[secondSlot] = NONE;
+        parents[firstSlot] = NONE;
+        pull(secondSlot);
+        degrees[firstSlot]--;
+        degrees[secondSlot]--;
+        return true;
+    }
+
+    /**
+     * Getting the number of connections between two addresses
+     *
+     * @param first  first IP-Address as int
+     * @param second second IP-Address as int
+     * @return length of the route or -1 if there is none
+     */
+    public int distance(int first, int second) {
+        if (!connected(first, second)) return -1;
+        int secondSlot = slots.get(second);
+        evertSlot(slots.get(first));
+        access(secondSlot);
+        return sizes[secondSlot] - 1;
+    }
+
+    /**
+     * Getting the route between two addresses
+     *
+     * @param first  first IP-Address as int
+     * @param second second IP-Address as int
+     * @return addresses from first to second or an empty array if there is no route
+     */
+    public int[] route(int first, int second) {
+        if (!connected(first, second)) return new int[0];
+        int secondSlot = slots.get(second);
+        evertSlot(slots.get(first));
+        access(secondSlot);
+        // the splay tree of second holds exactly the route, in order from first to second
+        int[] route = new int[sizes[secondSlot]];
+        int count = 0;
+        int top = 0;
+        int current = secondSlot;
+        while (current != NONE || top > 0) {
+            while (current != NONE) {
+                push(current);
+                stack[top++] = current;
+                current = left[current];
+            }
+            current = stack[--top];
+            route[count++] = keys[current];
+            current = right[current];
+        }
+        return route;
+    }
+
+    /**
+     * Getting the root of the tree of an address. The root only changes with {@link #evert(int)}, linking and
+     * cutting, so it is the same for every address of a tree in between.
+     *
+     * @param key IP-Address as int
+     * @return root address or the address itself if it is unknown
+     */
+    public int root(int key) {
+        int slot = slots.get(key);
+        return slot == IntIntMap.MISSING ? key : keys[findRoot(slot)];
+    }
+
+    /**
+     * Getting the next address on the route from an address to the root of its tree
+     *
+     * @param key IP-Address as int
+     * @return address of the parent or the address itself if it is a root or unknown
+     */
+    public int parent(int key) {
+        int slot = slots.get(key);
+        if (slot == IntIntMap.MISSING) return key;
+        access(slot);
+        // the parent is the last host before this one on the path from the root
+        int parent = left[slot];
+        if (parent == NONE) return key;
+        push(parent);
+        while (right[parent] != NONE) {
+            parent = right[parent];
+            push(parent);
+        }
+        splay(parent);
+        return keys[parent];
+    }
+
+    /**
+     * Making an address the root of its tree
+     *
+     * @param key IP-Address as int
+     */
+    public void evert(int key) {
+        int slot = slots.get(key);
+        if (slot != IntIntMap.MISSING) evertSlot(slot);
+    }
+
+    private void evertSlot(int slot) {
+        access(slot);
+        reversed[slot] ^= true;
+    }
+
+    private int findRoot(int slot) {
+        access(slot);
+        int root = slot;
+        push(root);
+        while (left[root] != NONE) {
+            root = left[root];
+            push(root);
+        }
+        splay(root);
+        return root;
+    }
+
+    /**
+     * Making the path from the root of the tree to a host preferred, afterwards the host is the root of its splay
+     * tree, which holds exactly this path
+     */
+    private void access(int slot) {
+        int last = NONE;
+        for (int current = slot; current != NONE; current = parents[current]) {
+            splay(current);
+            right[current] = last;
+            pull(current);
+            last = current;
+        }
+        splay(slot);
+    }
+
+    private void splay(int slot) {
+        // reversal flags are pushed from the top of the splay tree down to the node first
+        int top = 0;
+        stack[top++] = slot;
+        for (int current = slot; !isSplayRoot(current); current = parents[current]) {
+            stack[top++] = parents[current];
+        }
+        while (top > 0) {
+            push(stack[--top]);
+        }
+        while (!isSplayRoot(slot)) {
+            int parent = parents[slot];
+            if (!isSplayRoot(parent)) {
+                int grandParent = parents[parent];
+                boolean zigZig = (left[grandParent] == parent) == (left[parent] == slot);
+                rotate(zigZig ? parent : slot);
+            }
+            rotate(slot);
+        }
+    }
+
+    private void rotate(int slot) {
+        int parent = parents[slot];
+        int grandParent = parents[parent];
+        if (!isSplayRoot(parent)) {
+            if (left[grandParent] == parent) {
+                left[grandParent] = slot;
+            } else {
+                right[grandParent] = slot;
+            }
+        }
+        parents[slot] = grandParent;
+        if (left[parent] == slot) {
+            left[parent] = right[slot];
+            if (right[slot] != NONE) parents[right[slot]] = parent;
+            right[slot] = parent;
+        } else {
+            right[parent] = left[slot];
+            if (left[slot] != NONE) parents[left[slot]] = parent;
+            left[slot] = parent;
+        }
+        parents[parent] = slot;
+        pull(parent);
+        pull(slot);
+    }
+
+    private boolean isSplayRoot(int slot) {
+        int parent = parents[slot];
+        return parent == NONE || (left[parent] != slot && right[parent] != slot);
+    }
+
+    private void push(int slot) {
+        if (!reversed[slot]) return;
+        int child = left[slot];
+        left[slot] = right[slot];
+        right[slot] = child;
+        if (left[slot] != NONE) reversed[left[slot]] ^= true;
+        if (right[slot] != NONE) reversed[right[slot]] ^= true;
+        reversed[slot] = false;
+    }
+
+    private void pull(int slot) {
+        int size = 1;
+        if (left[slot] != NONE) size += sizes[left[slot]];
+        if (right[slot] != NONE) size += sizes[right[slot]];
+        sizes[slot] = size;
+    }
+
+    private void grow(int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        reversed = Arrays.copyOf(reversed, capacity);
+        degrees = Arrays.copyOf(degrees, capacity);
+        stack = Arrays.copyOf(stack, capacity);
+        free = Arrays.copyOf(free, capacity);
+    }
+}
@@ -1,7 +1,6 @@
 package edu.kit.informatik.graph;
 
 import edu.kit.informatik.network.IP;
-import edu.kit.informatik.exceptions.ParseException;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -9,7 +8,9 @@
 import java.util.stream.Collectors;
 
 /**
- * Representing a Node of a graph
+ * Representing a Node of a graph. Every node keeps the number of hosts and the height of its subtree in the stored
+ * orientation. Changes only mark the node and its ancestors as outdated, and a query recounts just the outdated
+ * part, so both values cost O(1) as long as the tree doesn't change.
  *
  * @author unyrg
  * @version 1.0
@@ -19,6 +20,12 @@ public class Node implements Comparable<Node> {
     private final IP address;
     private final List<Node> children;
     private Node parent;
+    private int subtreeSize = 1;
+    private int subtreeHeight;
+    /**
+     * set if size and height of the subtree have to be recounted, an outdated node only has outdated ancestors
+     */
+    private boolean outdated;
 
     /**
      * Constructor of a node
@@ -33,31 +40,43 @@ public Node(IP address, List<Node> children) {
         if (!children.isEmpty()) {
             for (Node child : children) {
                 child.parent = this;
+                outdated |= child.outdated;
             }
             Collections.sort(children);
         }
+        if (!outdated) recount();
     }
 
     /**
-     * Deep copy a node structure without references
+     * Deep copy a node structure without references. The tree is copied level by level without recursion, so deep
+     * trees can be copied as well.
      *
      * @return A deep copy of a node with a copy of its children and so on
      */
     public Node copy() {
-        try {
-            if (!this.getChildren().isEmpty()) {
-                List<Node> children = new ArrayList<>();
-                for (Node child : this.getChildren()) {
-                    children.add(child.copy());
-                }
-                return new Node(new IP(this.getAddress().toString()), children);
-            } else {
-                return new Node(new IP(this.getAddress().toString()), new ArrayList<>());
+        // IP is immutable, so the copy can share the address
+        List<Node> originals = new ArrayList<>();
+        List<Node> copies = new ArrayList<>();
+        originals.add(this);
+        copies.add(new Node(this.getAddress(), new ArrayList<>()));
+        for (int head = 0; head < originals.size(); head++) {
+            Node copy = copies.get(head);
+            for (Node child : originals.get(head).getChildren()) {
+                Node childCopy = new Node(child.getAddress(), new ArrayList<>());
+                childCopy.parent = copy;
+                childCopy.subtreeSize = child.subtreeSize;
+                childCopy.subtreeHeight = child.subtreeHeight;
+                childCopy.outdated = child.outdated;
+                copy.children.add(childCopy);
+                originals.add(child);
+                copies.add(childCopy);
             }
-        } catch (ParseException e) {
-            e.printStackTrace();
+            Collections.sort(copy.children);
         }
-        return null;
+        copies.get(0).subtreeSize = subtreeSize;
+        copies.get(0).subtreeHeight = subtreeHeight;
+        copies.get(0).outdated = outdated;
+        return copies.get(0);
     }
 
     /**
@@ -70,6 +89,66 @@ public void addChildren(List<Node> children) {
             child.setParent(this);
         }
         this.children.addAll(children);
+        childrenChanged();
+    }
+
+    /**
+     * Marking the subtree statistics of this node and its ancestors as outdated. It has to be called after the list
+     * of children was changed directly, {@link #addChildren(List)} calls it by itself.
+     */
+    public void childrenChanged() {
+        for (Node node = this; node != null && !node.outdated; node = node.parent) {
+            node.outdated = true;
+        }
+    }
+
+    /**
+     * Getting the number of hosts in the subtree of this node, including the node itself
+     *
+     * @return size of the subtree
+     */
+    public int getSubtreeSize() {
+        update();
+        return subtreeSize;
+    }
+
+    /**
+     * Getting the number of connections from this node down to the deepest node of its subtree
+     *
+     * @return height of the subtree, 0 for a leaf
+     */
+    public int getSubtreeHeight() {
+        update();
+        return subtreeHeight;
+    }
+
+    /**
+     * Recounting every outdated node of the subtree, children are recounted before their parents
+     */
+    private void update() {
+        if (!outdated) return;
+        List<Node> order = new ArrayList<>();
+        order.add(this);
+        for (int head = 0; head < order.size(); head++) {
+            for (Node child : order.get(head).children) {
+                if (child.outdated) order.add(child);
+            }
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            order.get(i).recount();
+        }
+    }
+
+    private void recount() {
+        int size = 1;
+        int height = 0;
+        for (Node child : children) {
+            size += child.subtreeSize;
+            height = Math.max(height, child.subtreeHeight + 1);
+        }
+        subtreeSize = size;
+        subtreeHeight = height;
+        outdated = false;
     }
 
     /**
@@ -142,10 +221,8 @@ public boolean equals(Object o) {
 
     @Override
     public int hashCode() {
-        int result = address != null ? address.hashCode() : 0;
-        result = 31 * result + (children != null ? children.hashCode() : 0);
-        result = 31 * result + (parent != null ? parent.hashCode() : 0);
-        return result;
+        // equal nodes always have the same address, hashing parent and children would recurse through the tree
+        return address != null ? address.hashCode() : 0;
     }
 
     /**
@@ -0,0 +1,149 @@
+package edu.kit.informatik.graph;
+
+import edu.kit.informatik.network.IP;
+
+/**
+ * Open addressing hash index from the packed int of an IP-Address to its node
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class NodeIndex {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int HASH_SHIFT = 16;
+
+    private int[] keys;
+    private Node[] values;
+    private int size;
+
+    /**
+     * Creates a new empty index
+     */
+    public NodeIndex() {
+        keys = new int[DEFAULT_CAPACITY];
+        values = new Node[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Getting the node which is stored for an IP-Address
+     *
+     * @param address IP-Address
+     * @return associated node or null if there is none
+     */
+    public Node get(IP address) {
+        return get(address.toInt());
+    }
+
+    /**
+     * Getting the node which is stored for a packed IP-Address
+     *
+     * @param key IP-Address as int
+     * @return associated node or null if there is none
+     */
+    public Node get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return values[slot];
+        }
+        return null;
+    }
+
+    /**
+     * checks if an IP-Address is stored in the index
+     *
+     * @param address IP-Address
+     * @return true if there is a node for the address
+     */
+    public boolean contains(IP address) {
+        return get(address.toInt()) != null;
+    }
+
+    /**
+     * Adding a node if there is no node with the same address yet
+     *
+     * @param node node to add
+     * @return true if the node was added
+     */
+    public boolean add(Node node) {
+        int key = node.getAddress().toInt();
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return false;
+        }
+        keys[slot] = key;
+        values[slot] = node;
+        // keep the load factor at or below 1/2
+        if (++size * 2 > keys.length) resize(keys.length * 2);
+        return true;
+    }
+
+    /**
+     * Removing the node of an IP-Address
+     *
+     * @param address IP-Address
+     * @return the removed node or null if there was none
+     */
+    public Node remove(IP address) {
+        int key = address.toInt();
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) break;
+        }
+        Node removed = values[slot];
+        if (removed == null) return null;
+        // backward shift deletion so that no tombstones are needed
+        int free = slot;
+        for (int next = (free + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        values[free] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Removing every node from the index
+     */
+    public void clear() {
+        keys = new int[DEFAULT_CAPACITY];
+        values = new Node[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Getting the number of stored nodes
+     *
+     * @return number of nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Node[] oldValues = values;
+        keys = new int[capacity];
+        values = new Node[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == null) continue;
+            int slot = slot(oldKeys[i], mask);
+            while (values[slot] != null) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int slot(int key, int mask) {
+        int hash = key * HASH_MULTIPLIER;
+        return (hash ^ (hash >>> HASH_SHIFT)) & mask;
+    }
+}
@@ -0,0 +1,192 @@
+package edu.kit.informatik.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable map from int keys to values, stored as a hash array mapped trie. Every change returns a new map which
+ * shares all untouched branches with the old one (path copying), so a change costs O(log n) and old versions stay
+ * valid and can be read from any thread.
+ * <p>
+ * Keys are spread with a multiplication by an odd constant, which is a bijection on int, so two different keys
+ * always end up at different positions and there are no collisions to handle.
+ *
+ * @param <V> type of the values
+ * @author unyrg
+ * @version 1.0
+ */
+public final class PersistentIntMap<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0);
+
+    /**
+     * either null, a {@link Leaf} or a {@link Branch}
+     */
+    private final Object root;
+    private final int size;
+
+    private PersistentIntMap(Object root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Getting the empty map
+     *
+     * @param <V> type of the values
+     * @return map without entries
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    /**
+     * Getting the number of entries
+     *
+     * @return number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getting the value of a key
+     *
+     * @param key key
+     * @return value or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int hash = key * HASH_MULTIPLIER;
+        Object current = root;
+        for (int shift = 0; current instanceof Branch; shift += BITS) {
+            Branch branch = (Branch) current;
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((branch.bitmap & bit) == 0) return null;
+            current = branch.entries[Integer.bitCount(branch.bitmap & (bit - 1))];
+        }
+        if (current == null || ((Leaf) current).key != key) return null;
+        return (V) ((Leaf) current).value;
+    }
+
+    /**
+     * Setting the value of a key
+     *
+     * @param key   key
+     * @param value new value, not null
+     * @return map with the new value
+     */
+    public PersistentIntMap<V> put(int key, V value) {
+        int grown = get(key) == null ? 1 : 0;
+        return new PersistentIntMap<>(put(root, key * HASH_MULTIPLIER, new Leaf(key, value), 0), size + grown);
+    }
+
+    private static Object put(Object current, int hash, Leaf leaf, int shift) {
+        if (current == null) return leaf;
+        if (current instanceof Leaf) {
+            Leaf existing = (Leaf) current;
+            if (existing.key == leaf.key) return leaf;
+            // both keys share the prefix so far, they get pushed down into a new branch
+            Branch branch = new Branch(1 << ((existing.key * HASH_MULTIPLIER >>> shift) & MASK),
+                new Object[] {existing});
+            return put(branch, hash, leaf, shift);
+        }
+        Branch branch = (Branch) current;
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int position = Integer.bitCount(branch.bitmap & (bit - 1));
+        if ((branch.bitmap & bit) == 0) {
+            Object[] entries = new Object[branch.entries.length + 1];
+            System.arraycopy(branch.entries, 0, entries, 0, position);
+            entries[position] = leaf;
+            System.arraycopy(branch.entries, position, entries, position + 1, branch.entries.length - position);
+            return new Branch(branch.bitmap | bit, entries);
+        }
+        Object[] entries = branch.entries.clone();
+        entries[position] = put(entries[position], hash, leaf, shift + BITS);
+        return new Branch(branch.bitmap, entries);
+    }
+
+    /**
+     * Removing a key
+     *
+     * @param key key
+     * @return map without the key, the same map if the key didn't exist
+     */
+    public PersistentIntMap<V> remove(int key) {
+        if (get(key) == null) return this;
+        return new PersistentIntMap<>(remove(root, key * HASH_MULTIPLIER, key, 0), size - 1);
+    }
+
+    private static Object remove(Object current, int hash, int key, int shift) {
+        if (current instanceof Leaf) return null;
+        Branch branch = (Branch) current;
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int position = Integer.bitCount(branch.bitmap & (bit - 1));
+        Object replaced = remove(branch.entries[position], hash, key, shift + BITS);
+        if (replaced != null) {
+            if (branch.entries.length == 1 && replaced instanceof Leaf) return replaced;
+            Object[] entries = branch.entries.clone();
+            entries[position] = replaced;
+            return new Branch(branch.bitmap, entries);
+        }
+        if (branch.entries.length == 1) return null;
+        Object[] entries = new Object[branch.entries.length - 1];
+        System.arraycopy(branch.entries, 0, entries, 0, position);
+        System.arraycopy(branch.entries, position + 1, entries, position, entries.length - position);
+        // a branch with a single leaf left is replaced by the leaf itself
+        if (entries.length == 1 && entries[0] instanceof Leaf) return entries[0];
+        return new Branch(branch.bitmap & ~bit, entries);
+    }
+
+    /**
+     * Getting every key in no particular order
+     *
+     * @return array of all keys
+     */
+    public int[] keys() {
+        int[] keys = new int[size];
+        int count = 0;
+        Object[] stack = new Object[Integer.SIZE];
+        int top = 0;
+        if (root != null) stack[top++] = root;
+        while (top > 0) {
+            Object current = stack[--top];
+            if (current instanceof Leaf) {
+                keys[count++] = ((Leaf) current).key;
+                continue;
+            }
+            Object[] entries = ((Branch) current).entries;
+            if (top + entries.length > stack.length) stack = Arrays.copyOf(stack, (top + entries.length) * 2);
+            for (Object entry : entries) stack[top++] = entry;
+        }
+        return keys;
+    }
+
+    /**
+     * Entry of the trie
+     */
+    private static final class Leaf {
+        private final int key;
+        private final Object value;
+
+        private Leaf(int key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Inner node of the trie, only the positions which are in use are stored
+     */
+    private static final class Branch {
+        private final int bitmap;
+        private final Object[] entries;
+
+        private Branch(int bitmap, Object[] entries) {
+            this.bitmap = bitmap;
+            this.entries = entries;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package edu.kit.informatik.graph;
+
+import edu.kit.informatik.network.IP;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read only route which stores the ids of its hosts and resolves them against the address table of the index that
+ * found it, so no list entries get created per hop
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class Route extends AbstractList<IP> implements RandomAccess {
+
+    private final IP[] addresses;
+    private final int[] ids;
+
+    /**
+     * Creates a new route
+     *
+     * @param addresses address table of the index
+     * @param ids       ids of the hosts from start to end
+     */
+    Route(IP[] addresses, int[] ids) {
+        this.addresses = addresses;
+        this.ids = ids;
+    }
+
+    @Override
+    public IP get(int index) {
+        return addresses[ids[index]];
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Getting the route as IP-Addresses packed into ints
+     *
+     * @return addresses from start to end
+     */
+    public int[] toIntArray() {
+        int[] packed = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            packed[i] = addresses[ids[i]].toInt();
+        }
+        return packed;
+    }
+}
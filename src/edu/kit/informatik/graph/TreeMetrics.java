@@ -0,0 +1,145 @@
+package edu.kit.informatik.graph;
+
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.utils.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Eccentricity of every host, the longest route starting at it, together with diameter, radius and centers of
+ * every subnet. Everything is computed in linear time with two passes over each tree (rerooting): the first pass
+ * gets the height of every subtree, the second one the longest route which leaves a subtree through its parent.
+ * The metrics are a snapshot of the network, so they have to be rebuilt after the network changed.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class TreeMetrics {
+
+    private final IntIntMap ids;
+    private final IP[] addresses;
+    private final int[] eccentricities;
+    private final int diameter;
+    private final int radius;
+    private final List<IP> centers = new ArrayList<>();
+
+    /**
+     * Computes the metrics for a list of subnets
+     *
+     * @param subnets subnets of a network, every entry is resolved to the root of its tree
+     */
+    public TreeMetrics(List<Node> subnets) {
+        Map<Node, Boolean> roots = new IdentityHashMap<>();
+        List<Node> order = new ArrayList<>();
+        List<Integer> treeStarts = new ArrayList<>();
+        for (Node subnet : subnets) {
+            Node root = Graph.getSubnetRoot(subnet);
+            if (roots.put(root, Boolean.TRUE) != null) continue;
+            treeStarts.add(order.size());
+            order.addAll(Graph.getNodes(root));
+        }
+        treeStarts.add(order.size());
+        int size = order.size();
+        ids = new IntIntMap(size);
+        addresses = new IP[size];
+        int[] parents = new int[size];
+        for (int id = 0; id < size; id++) {
+            Node node = order.get(id);
+            ids.put(node.getAddress().toInt(), id);
+            addresses[id] = node.getAddress();
+            parents[id] = node.getParent() == null ? -1 : ids.get(node.getParent().getAddress().toInt());
+        }
+
+        // first pass, the two highest subtrees below every host, children come after their parent in the order
+        int[] highest = new int[size];
+        int[] secondHighest = new int[size];
+        int[] highestChild = new int[size];
+        Arrays.fill(highestChild, -1);
+        for (int id = size - 1; id >= 0; id--) {
+            int parent = parents[id];
+            if (parent == -1) continue;
+            int height = highest[id] + 1;
+            if (height > highest[parent]) {
+                secondHighest[parent] = highest[parent];
+                highest[parent] = height;
+                highestChild[parent] = id;
+            } else if (height > secondHighest[parent]) {
+                secondHighest[parent] = height;
+            }
+        }
+
+        // second pass, the longest route which starts with the connection to the parent
+        int[] upwards = new int[size];
+        eccentricities = new int[size];
+        for (int id = 0; id < size; id++) {
+            int parent = parents[id];
+            if (parent != -1) {
+                int sibling = highestChild[parent] == id ? secondHighest[parent] : highest[parent];
+                upwards[id] = 1 + Math.max(upwards[parent], sibling);
+            }
+            eccentricities[id] = Math.max(highest[id], upwards[id]);
+        }
+
+        int longest = 0;
+        int shortest = 0;
+        for (int tree = 0; tree + 1 < treeStarts.size(); tree++) {
+            int treeRadius = Integer.MAX_VALUE;
+            int treeDiameter = 0;
+            for (int id = treeStarts.get(tree); id < treeStarts.get(tree + 1); id++) {
+                treeRadius = Math.min(treeRadius, eccentricities[id]);
+                treeDiameter = Math.max(treeDiameter, eccentricities[id]);
+            }
+            for (int id = treeStarts.get(tree); id < treeStarts.get(tree + 1); id++) {
+                if (eccentricities[id] == treeRadius) centers.add(addresses[id]);
+            }
+            longest = Math.max(longest, treeDiameter);
+            shortest = Math.max(shortest, treeRadius);
+        }
+        Collections.sort(centers);
+        diameter = longest;
+        radius = shortest;
+    }
+
+    /**
+     * Getting the length of the longest route which starts at a host
+     *
+     * @param address IP-Address
+     * @return eccentricity or -1 if the address isn't part of the network
+     */
+    public int getEccentricity(IP address) {
+        int id = ids.get(address.toInt());
+        return id == IntIntMap.MISSING ? -1 : eccentricities[id];
+    }
+
+    /**
+     * Getting the length of the longest route of the network
+     *
+     * @return longest diameter of all subnets
+     */
+    public int getDiameter() {
+        return diameter;
+    }
+
+    /**
+     * Getting the time an infection needs to reach every host if the center of every subnet is infected
+     *
+     * @return longest radius of all subnets
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Getting the hosts with the smallest eccentricity of their subnet, every subnet has one or two centers
+     *
+     * @return centers of all subnets in ascending order
+     */
+    public List<IP> getCenters() {
+        return new ArrayList<>(centers);
+    }
+}
@@ -0,0 +1,510 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.graph.Node;
+import edu.kit.informatik.utils.Graph;
+
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Read only network which stores its topology in parallel int buffers instead of node objects. The buffers are
+ * either arrays on the heap or views of a memory mapped {@link TopologyFile}. Hosts are numbered in ascending
+ * address order, every host costs five ints (address, parent, child offset, child entry and depth), so about 20
+ * bytes.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class CompactNetwork {
+
+    private final IntBuffer addresses;
+    private final IntBuffer parents;
+    private final IntBuffer childOffsets;
+    private final IntBuffer children;
+    private final IntBuffer depths;
+
+    /**
+     * Creates a compact copy of a network
+     *
+     * @param network network to copy
+     */
+    public CompactNetwork(final Network network) {
+        this(collectEdges(network));
+    }
+
+    private CompactNetwork(int[][] edges) {
+        this(edges[0], edges[1]);
+    }
+
+    /**
+     * Creates a compact network from addresses and the address of their parents
+     *
+     * @param addresses      every address exactly once
+     * @param parentAddresses address of the parent at the same position, the address itself for subnet roots
+     */
+    CompactNetwork(final int[] addresses, final int[] parentAddresses) {
+        int size = addresses.length;
+        if (size != parentAddresses.length) throw new IllegalArgumentException("every address needs a parent");
+        int[] sorted = sortUnsigned(addresses.clone());
+        for (int i = 1; i < size; i++) {
+            if (sorted[i - 1] == sorted[i]) throw new IllegalArgumentException("duplicate address");
+        }
+        this.addresses = IntBuffer.wrap(sorted);
+        int[] parentHosts = new int[size];
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            int host = indexOf(addresses[i]);
+            parentHosts[host] = parentAddresses[i] == addresses[i] ? -1 : indexOf(parentAddresses[i]);
+            if (parentHosts[host] == -1 && parentAddresses[i] != addresses[i])
+                throw new IllegalArgumentException("unknown parent");
+        }
+        // children are stored in CSR layout, child lists are sorted because hosts are numbered in address order
+        for (int host = 0; host < size; host++) {
+            if (parentHosts[host] != -1) offsets[parentHosts[host] + 1]++;
+        }
+        for (int host = 0; host < size; host++) {
+            offsets[host + 1] += offsets[host];
+        }
+        int[] childHosts = new int[offsets[size]];
+        int[] fill = Arrays.copyOf(offsets, size);
+        for (int host = 0; host < size; host++) {
+            if (parentHosts[host] != -1) childHosts[fill[parentHosts[host]]++] = host;
+        }
+        int[] hostDepths = new int[size];
+        int reached = 0;
+        int[] queue = new int[size];
+        for (int host = 0; host < size; host++) {
+            if (parentHosts[host] == -1) queue[reached++] = host;
+        }
+        for (int head = 0; head < reached; head++) {
+            int host = queue[head];
+            for (int k = offsets[host]; k < offsets[host + 1]; k++) {
+                hostDepths[childHosts[k]] = hostDepths[host] + 1;
+                queue[reached++] = childHosts[k];
+            }
+        }
+        if (reached != size) throw new IllegalArgumentException("ERROR: Circular Tree");
+        this.parents = IntBuffer.wrap(parentHosts);
+        this.childOffsets = IntBuffer.wrap(offsets);
+        this.children = IntBuffer.wrap(childHosts);
+        this.depths = IntBuffer.wrap(hostDepths);
+    }
+
+    /**
+     * Creates a compact network on top of buffers which already hold the complete layout, nothing gets copied
+     *
+     * @param addresses    addresses in ascending unsigned order
+     * @param parents      index of the parent of every host, -1 for subnet roots
+     * @param childOffsets start of the children of every host in the child buffer, one more entry than hosts
+     * @param children     children of every host in ascending order
+     * @param depths       distance of every host to the root of its subnet
+     */
+    CompactNetwork(IntBuffer addresses, IntBuffer parents, IntBuffer childOffsets, IntBuffer children,
+                   IntBuffer depths) {
+        this.addresses = addresses;
+        this.parents = parents;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.depths = depths;
+    }
+
+    private static int[][] collectEdges(Network network) {
+        Map<Node, Boolean> roots = new IdentityHashMap<>();
+        List<Node> stack = new ArrayList<>();
+        for (Node subnet : network.getSubnets()) {
+            Node root = Graph.getSubnetRoot(subnet);
+            if (roots.put(root, Boolean.TRUE) == null) stack.add(root);
+        }
+        int size = network.size();
+        int[] addresses = new int[size];
+        int[] parentAddresses = new int[size];
+        int count = 0;
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            addresses[count] = node.getAddress().toInt();
+            Node parent = node.getParent() == null ? node : node.getParent();
+            parentAddresses[count++] = parent.getAddress().toInt();
+            stack.addAll(node.getChildren());
+        }
+        return new int[][] {Arrays.copyOf(addresses, count), Arrays.copyOf(parentAddresses, count)};
+    }
+
+    /**
+     * Sorting addresses in ascending unsigned order
+     *
+     * @param values IP-Addresses as int, they get sorted in place
+     * @return the same array
+     */
+    static int[] sortUnsigned(int[] values) {
+        // flipping the sign bit maps the unsigned order onto the signed order
+        for (int i = 0; i < values.length; i++) values[i] ^= Integer.MIN_VALUE;
+        Arrays.sort(values);
+        for (int i = 0; i < values.length; i++) values[i] ^= Integer.MIN_VALUE;
+        return values;
+    }
+
+    /**
+     * Converts the compact network back into a network of nodes
+     *
+     * @return new network with the same subnets
+     */
+    public Network toNetwork() {
+        int size = size();
+        if (size == 0) throw new IllegalStateException("network without hosts");
+        Node[] nodes = new Node[size];
+        // children before parents so that every child list is complete when the parent gets created
+        int[] order = bottomUpOrder();
+        List<Node> roots = new ArrayList<>();
+        for (int host : order) {
+            List<Node> childNodes = new ArrayList<>(childCount(host));
+            for (int k = childOffsets.get(host); k < childOffsets.get(host + 1); k++) {
+                childNodes.add(nodes[children.get(k)]);
+            }
+            nodes[host] = new Node(IP.of(addresses.get(host)), childNodes);
+            if (parents.get(host) == -1) roots.add(nodes[host]);
+        }
+        try {
+            return new Network(roots);
+        } catch (ParseException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private int[] bottomUpOrder() {
+        int size = size();
+        int[] order = new int[size];
+        int count = 0;
+        for (int host = 0; host < size; host++) {
+            if (parents.get(host) == -1) order[count++] = host;
+        }
+        for (int head = 0; head < count; head++) {
+            int host = order[head];
+            for (int k = childOffsets.get(host); k < childOffsets.get(host + 1); k++) {
+                order[count++] = children.get(k);
+            }
+        }
+        for (int left = 0, right = size - 1; left < right; left++, right--) {
+            int temp = order[left];
+            order[left] = order[right];
+            order[right] = temp;
+        }
+        return order;
+    }
+
+    /**
+     * Getting the number of hosts
+     *
+     * @return number of hosts
+     */
+    public int size() {
+        return addresses.limit();
+    }
+
+    /**
+     * Getting the position of an address in ascending address order
+     *
+     * @param address IP-Address as int
+     * @return index of the host or -1 if the address isn't part of the network
+     */
+    public int indexOf(int address) {
+        int low = 0;
+        int high = addresses.limit() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compared = Integer.compareUnsigned(addresses.get(middle), address);
+            if (compared == 0) return middle;
+            if (compared < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Getting the address of a host
+     *
+     * @param host index of the host
+     * @return IP-Address as int
+     */
+    public int address(int host) {
+        return addresses.get(host);
+    }
+
+    /**
+     * Getting the parent of a host
+     *
+     * @param host index of the host
+     * @return index of the parent or -1 for the root of a subnet
+     */
+    public int parent(int host) {
+        return parents.get(host);
+    }
+
+    /**
+     * Getting the number of children of a host
+     *
+     * @param host index of the host
+     * @return number of children
+     */
+    public int childCount(int host) {
+        return childOffsets.get(host + 1) - childOffsets.get(host);
+    }
+
+    /**
+     * Getting a child of a host, children are sorted in ascending address order
+     *
+     * @param host  index of the host
+     * @param child position of the child
+     * @return index of the child
+     */
+    public int child(int host, int child) {
+        return children.get(childOffsets.get(host) + child);
+    }
+
+    /**
+     * Getting the distance of a host to the root of its subnet
+     *
+     * @param host index of the host
+     * @return depth of the host
+     */
+    public int depth(int host) {
+        return depths.get(host);
+    }
+
+    /**
+     * returns a list of all IP-Addresses
+     *
+     * @return list of all IP addresses in ascending order
+     */
+    public List<IP> list() {
+        List<IP> allAddresses = new ArrayList<>(size());
+        for (int host = 0; host < size(); host++) {
+            allAddresses.add(IP.of(addresses.get(host)));
+        }
+        return allAddresses;
+    }
+
+    /**
+     * checks if a specific IP is part of the network
+     *
+     * @param ip IP-Address you want to check
+     * @return true of false
+     */
+    public boolean contains(final IP ip) {
+        return ip != null && indexOf(ip.toInt()) != -1;
+    }
+
+    /**
+     * Searching for the maximum depth of the tree when it would be rooted at a host, the layers are only counted
+     * and never sorted
+     *
+     * @param root root ip for the network/starting point
+     * @return returning the height/depth of the tree
+     */
+    public int getHeight(final IP root) {
+        if (!contains(root)) return 0;
+        Levels levels = new Levels(indexOf(root.toInt()));
+        int height = -1;
+        while (levels.hasNext()) {
+            levels.skip();
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * Storing all hosts from the same layer into a list
+     *
+     * @param root root of the network
+     * @return list of lists where every list contains every address of each layer in ascending order
+     */
+    public List<List<IP>> getLevels(final IP root) {
+        List<List<IP>> layers = new ArrayList<>();
+        for (Iterator<List<IP>> levels = levelIterator(root); levels.hasNext();) {
+            layers.add(levels.next());
+        }
+        return layers;
+    }
+
+    /**
+     * Getting the layers of the subnet of a host one after another, a layer is only searched when it is requested
+     *
+     * @param root root of the network
+     * @return iterator over the addresses of each layer in ascending order, empty if the host doesn't exist
+     */
+    public Iterator<List<IP>> levelIterator(final IP root) {
+        if (!contains(root)) return Collections.emptyIterator();
+        return new Levels(indexOf(root.toInt()));
+    }
+
+    /**
+     * Breadth first search which stops after every layer. All layers share one queue, a layer is sorted in place
+     * once its hosts have been expanded, hosts are numbered in address order so sorting the hosts sorts the
+     * addresses.
+     */
+    private final class Levels implements Iterator<List<IP>> {
+        private final int[] queue = new int[size()];
+        /**
+         * host every queued host was reached from
+         */
+        private final int[] from = new int[size()];
+        private int layerStart;
+        private int count = 1;
+
+        private Levels(int start) {
+            queue[0] = start;
+            from[0] = -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return layerStart < count;
+        }
+
+        @Override
+        public List<IP> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int start = layerStart;
+            int end = expand();
+            Arrays.sort(queue, start, end);
+            List<IP> addressesOfLayer = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                addressesOfLayer.add(IP.of(addresses.get(queue[i])));
+            }
+            return addressesOfLayer;
+        }
+
+        /**
+         * Moving on to the next layer without building the current one
+         */
+        private void skip() {
+            expand();
+        }
+
+        /**
+         * Queueing the neighbours of the current layer
+         *
+         * @return end of the current layer in the queue
+         */
+        private int expand() {
+            int layerEnd = count;
+            for (int i = layerStart; i < layerEnd; i++) {
+                int host = queue[i];
+                if (parents.get(host) != -1 && parents.get(host) != from[i]) {
+                    from[count] = host;
+                    queue[count++] = parents.get(host);
+                }
+                for (int k = childOffsets.get(host); k < childOffsets.get(host + 1); k++) {
+                    if (children.get(k) == from[i]) continue;
+                    from[count] = host;
+                    queue[count++] = children.get(k);
+                }
+            }
+            layerStart = layerEnd;
+            return layerEnd;
+        }
+    }
+
+    /**
+     * Getting a rout from one ip to another
+     *
+     * @param start starting point
+     * @param end   destination
+     * @return list of IPs which represents the rout between two IPs
+     */
+    public List<IP> getRoute(final IP start, final IP end) {
+        List<IP> path = new ArrayList<>();
+        if (!contains(start) || !contains(end)) return path;
+        int first = indexOf(start.toInt());
+        int second = indexOf(end.toInt());
+        Deque<IP> endPath = new ArrayDeque<>();
+        while (depths.get(first) > depths.get(second)) {
+            path.add(IP.of(addresses.get(first)));
+            first = parents.get(first);
+        }
+        while (depths.get(second) > depths.get(first)) {
+            endPath.push(IP.of(addresses.get(second)));
+            second = parents.get(second);
+        }
+        while (first != second) {
+            if (parents.get(first) == -1) return new ArrayList<>();
+            path.add(IP.of(addresses.get(first)));
+            endPath.push(IP.of(addresses.get(second)));
+            first = parents.get(first);
+            second = parents.get(second);
+        }
+        path.add(IP.of(addresses.get(first)));
+        path.addAll(endPath);
+        return path;
+    }
+
+    /**
+     * converts a subnet to bracket notation
+     *
+     * @param root root of the graph
+     * @return tree in bracket notation
+     */
+    public String toString(IP root) {
+        if (!contains(root)) return "";
+        int start = indexOf(root.toInt());
+        StringBuilder bracketNotation = new StringBuilder();
+        // every frame is a host, the host it was reached from and how far its neighbours were written
+        int[] hosts = new int[size()];
+        int[] from = new int[size()];
+        int[] nextChild = new int[size()];
+        boolean[] parentDone = new boolean[size()];
+        int top = open(bracketNotation, 0, start, -1, hosts, from, nextChild, parentDone);
+        while (top >= 0) {
+            int host = hosts[top];
+            int neighbour = nextNeighbour(host, from[top], nextChild, parentDone, top);
+            if (neighbour == -1) {
+                if (hasNeighbour(host, from[top])) bracketNotation.append(')');
+                top--;
+            } else {
+                bracketNotation.append(' ');
+                top = open(bracketNotation, top + 1, neighbour, host, hosts, from, nextChild, parentDone);
+            }
+        }
+        return bracketNotation.toString();
+    }
+
+    private int open(StringBuilder out, int top, int host, int parent, int[] hosts, int[] from, int[] nextChild,
+                     boolean[] parentDone) {
+        if (hasNeighbour(host, parent)) out.append('(');
+        IP.of(addresses.get(host)).appendTo(out);
+        hosts[top] = host;
+        from[top] = parent;
+        nextChild[top] = childOffsets.get(host);
+        parentDone[top] = parents.get(host) == -1 || parents.get(host) == parent;
+        return top;
+    }
+
+    private boolean hasNeighbour(int host, int from) {
+        int degree = childCount(host) + (parents.get(host) == -1 ? 0 : 1);
+        return degree > (from == -1 ? 0 : 1);
+    }
+
+    private int nextNeighbour(int host, int from, int[] nextChild, boolean[] parentDone, int top) {
+        if (nextChild[top] < childOffsets.get(host + 1) && children.get(nextChild[top]) == from) nextChild[top]++;
+        int child = nextChild[top] < childOffsets.get(host + 1) ? children.get(nextChild[top]) : -1;
+        // neighbours are written in ascending order, so the parent is merged into the sorted child list
+        if (!parentDone[top] && (child == -1 || parents.get(host) < child)) {
+            parentDone[top] = true;
+            return parents.get(host);
+        }
+        if (child != -1) nextChild[top]++;
+        return child;
+    }
+}
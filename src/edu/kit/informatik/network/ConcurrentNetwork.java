@@ -0,0 +1,407 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.graph.Node;
+import edu.kit.informatik.utils.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Thread safe network which splits its hosts into components that can be used independently. Every component is
+ * a network of its own with its own lock, and a concurrent index tells which component a host belongs to.
+ * Operations on different components never wait for each other. Only connect and add have to merge components,
+ * they lock every component involved in the order of their ids, so two merges can't deadlock.
+ * <p>
+ * Every component holds exactly one subnet. Merging moves the nodes of the smaller components into the biggest
+ * one without copying them, and when a disconnect or a partly rejected add leaves more than one subnet in a
+ * component, every subnet but the biggest is moved into a new component. Hosts only wait for each other while
+ * they are part of the same subnet.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class ConcurrentNetwork {
+
+    private final ConcurrentHashMap<IP, Component> owners = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Creates an empty network
+     */
+    public ConcurrentNetwork() {
+    }
+
+    /**
+     * Creates a network with a copy of every subnet of a network, every subnet becomes its own component
+     *
+     * @param network network to copy
+     */
+    public ConcurrentNetwork(final Network network) {
+        for (Node subnet : network.getSubnets()) {
+            Node root = Graph.getSubnetRoot(subnet);
+            Component component = new Component(nextId.getAndIncrement());
+            try {
+                component.network = new Network(new ArrayList<>(List.of(root.copy())));
+            } catch (ParseException e) {
+                // the subnet was part of a network, so it isn't circular
+                throw new IllegalStateException(e.getMessage());
+            }
+            for (IP ip : component.network.list()) {
+                owners.put(ip, component);
+            }
+        }
+    }
+
+    /**
+     * Adding a subnet to the network, see {@link Network#add(Network)}. Every component which shares a host with
+     * the subnet gets merged into the biggest of them first.
+     *
+     * @param subnet subnetwork, it must not be changed while it gets added
+     * @return true if the subnet changed the network
+     */
+    public boolean add(final Network subnet) {
+        if (subnet == null) return false;
+        List<IP> hosts = subnet.list();
+        while (true) {
+            Set<Component> involved = new LinkedHashSet<>();
+            for (IP host : hosts) {
+                Component owner = owners.get(host);
+                if (owner != null) involved.add(owner);
+            }
+            if (involved.isEmpty()) involved.add(new Component(nextId.getAndIncrement()));
+            Component[] locked = lock(involved);
+            try {
+                if (!isCurrent(locked, hosts, involved)) continue;
+                Component target = biggest(locked);
+                List<IP> claimed = claim(hosts, target);
+                if (claimed == null) continue;
+                mergeInto(target, locked);
+                boolean changed;
+                if (target.network == null) {
+                    target.network = new CompactNetwork(subnet).toNetwork();
+                    changed = true;
+                } else {
+                    changed = target.network.add(subnet);
+                }
+                // hosts of rejected trees were claimed but never added
+                for (IP host : claimed) {
+                    if (!target.network.contains(host)) owners.remove(host, target);
+                }
+                split(target);
+                return changed;
+            } finally {
+                unlock(locked);
+            }
+        }
+    }
+
+    /**
+     * Connecting two existing IP-Addresses, see {@link Network#connect(IP, IP)}
+     *
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @return boolean if the connection was successful
+     */
+    public boolean connect(final IP ip1, final IP ip2) {
+        if (ip1 == null || ip2 == null) return false;
+        while (true) {
+            Component first = owners.get(ip1);
+            Component second = owners.get(ip2);
+            if (first == null || second == null) return false;
+            Set<Component> involved = new LinkedHashSet<>(List.of(first, second));
+            Component[] locked = lock(involved);
+            try {
+                if (!owns(first, ip1) || !owns(second, ip2)) continue;
+                // both hosts are part of the same subnet, the connection would close a circle
+                if (first == second) return false;
+                Component target = biggest(locked);
+                mergeInto(target, locked);
+                return target.network.connect(ip1, ip2);
+            } finally {
+                unlock(locked);
+            }
+        }
+    }
+
+    /**
+     * Disconnecting two IP-Addresses, see {@link Network#disconnect(IP, IP)}
+     *
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @return boolean if the disconnection was successful
+     */
+    public boolean disconnect(final IP ip1, final IP ip2) {
+        if (ip1 == null || ip2 == null) return false;
+        while (true) {
+            Component component = owners.get(ip1);
+            if (component == null || owners.get(ip2) != component) return false;
+            component.lock.lock();
+            try {
+                if (component.retired || owners.get(ip1) != component || owners.get(ip2) != component) continue;
+                if (component.network.size() == 2 && owners.size() > 2) {
+                    // like a network with other subnets, a single connection can be removed with both hosts
+                    if (component.network.getDistance(ip1, ip2) != 1) return false;
+                    component.retired = true;
+                    owners.remove(ip1, component);
+                    owners.remove(ip2, component);
+                    return true;
+                }
+                if (!component.network.disconnect(ip1, ip2)) return false;
+                // hosts without connections are removed from the network
+                if (!component.network.contains(ip1)) owners.remove(ip1, component);
+                if (!component.network.contains(ip2)) owners.remove(ip2, component);
+                split(component);
+                return true;
+            } finally {
+                component.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * returns a list of all IP-Addresses, components are read one after another so concurrent changes may be
+     * partially visible
+     *
+     * @return list of all IP addresses in ascending order
+     */
+    public List<IP> list() {
+        List<IP> allAddresses = new ArrayList<>();
+        for (Component component : new LinkedHashSet<>(owners.values())) {
+            component.lock.lock();
+            try {
+                if (!component.retired) allAddresses.addAll(component.network.list());
+            } finally {
+                component.lock.unlock();
+            }
+        }
+        allAddresses.sort(null);
+        return allAddresses;
+    }
+
+    /**
+     * checks if a specific IP is part of the network
+     *
+     * @param ip IP-Address you want to check
+     * @return true of false
+     */
+    public boolean contains(final IP ip) {
+        return read(ip, network -> network.contains(ip), false);
+    }
+
+    /**
+     * Searching for the maximum depth of the tree when it would be rooted at a host
+     *
+     * @param root root ip for the network/starting point
+     * @return returning the height/depth of the tree
+     */
+    public int getHeight(final IP root) {
+        return read(root, network -> network.getHeight(root), 0);
+    }
+
+    /**
+     * Storing all hosts from the same layer into a list
+     *
+     * @param root root of the network
+     * @return list of lists where every list contains every address of each layer
+     */
+    public List<List<IP>> getLevels(final IP root) {
+        return read(root, network -> network.getLevels(root), new ArrayList<>());
+    }
+
+    /**
+     * Getting a rout from one ip to another
+     *
+     * @param start starting point
+     * @param end   destination
+     * @return list of IPs which represents the rout between two IPs, empty if there is none
+     */
+    public List<IP> getRoute(final IP start, final IP end) {
+        return read(start, network -> network.getRoute(start, end), new ArrayList<>());
+    }
+
+    /**
+     * Getting the length of the rout from one ip to another
+     *
+     * @param start starting point
+     * @param end   destination
+     * @return number of connections between both IPs or -1 if there is no rout
+     */
+    public int getDistance(final IP start, final IP end) {
+        return read(start, network -> network.getDistance(start, end), -1);
+    }
+
+    /**
+     * converts the subnet of a host to bracket notation
+     *
+     * @param root root of the graph
+     * @return tree in bracket notation
+     */
+    public String toString(final IP root) {
+        return read(root, network -> network.toString(root), "");
+    }
+
+    /**
+     * Running a query on the component of a host while it is locked
+     *
+     * @param ip      host which decides the component
+     * @param query   query
+     * @param missing result if the host isn't part of the network
+     * @param <T>     type of the result
+     * @return result of the query
+     */
+    private <T> T read(IP ip, Function<Network, T> query, T missing) {
+        if (ip == null) return missing;
+        while (true) {
+            Component component = owners.get(ip);
+            if (component == null) return missing;
+            component.lock.lock();
+            try {
+                // the host might have been moved by a merge or a split before the lock was taken
+                if (!owns(component, ip)) continue;
+                return query.apply(component.network);
+            } finally {
+                component.lock.unlock();
+            }
+        }
+    }
+
+    private static Component[] lock(Set<Component> components) {
+        Component[] locked = components.toArray(new Component[0]);
+        Arrays.sort(locked, Comparator.comparingLong(component -> component.id));
+        for (Component component : locked) {
+            component.lock.lock();
+        }
+        return locked;
+    }
+
+    private static void unlock(Component[] locked) {
+        for (int i = locked.length - 1; i >= 0; i--) {
+            locked[i].lock.unlock();
+        }
+    }
+
+    private boolean owns(Component component, IP host) {
+        return !component.retired && owners.get(host) == component;
+    }
+
+    /**
+     * Checking that no locked component was merged away and no host moved to another component before the locks
+     * were taken
+     */
+    private boolean isCurrent(Component[] locked, List<IP> hosts, Set<Component> involved) {
+        for (Component component : locked) {
+            if (component.retired) return false;
+        }
+        for (IP host : hosts) {
+            Component owner = owners.get(host);
+            if (owner != null && !involved.contains(owner)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Claiming every host without a component for the target, so no other thread can add it at the same time
+     *
+     * @return claimed hosts or null if another thread was faster, then no host stays claimed
+     */
+    private List<IP> claim(List<IP> hosts, Component target) {
+        List<IP> claimed = new ArrayList<>();
+        for (IP host : hosts) {
+            Component owner = owners.putIfAbsent(host, target);
+            if (owner == null) {
+                claimed.add(host);
+            } else if (!owner.lock.isHeldByCurrentThread()) {
+                for (IP claimedHost : claimed) {
+                    owners.remove(claimedHost, target);
+                }
+                return null;
+            }
+        }
+        return claimed;
+    }
+
+    private static Component biggest(Component[] locked) {
+        Component biggest = locked[0];
+        for (Component component : locked) {
+            if (component.size() > biggest.size()) biggest = component;
+        }
+        return biggest;
+    }
+
+    /**
+     * Moving every locked component into the target, the nodes of the smaller components are taken over by the
+     * network of the biggest one without copying them
+     */
+    private void mergeInto(Component target, Component[] locked) {
+        for (Component component : locked) {
+            if (component == target || component.network == null) continue;
+            List<IP> hosts = component.network.list();
+            if (target.network == null) {
+                target.network = component.network;
+            } else {
+                target.network.absorb(component.network);
+            }
+            component.retired = true;
+            for (IP host : hosts) {
+                owners.put(host, target);
+            }
+        }
+    }
+
+    /**
+     * Moving every subnet of a locked component but the biggest one into a new component. The new component is
+     * locked until all of its hosts point to it, so no other thread can use it halfway. Its id is bigger than every
+     * id before, which keeps the order of the locks.
+     */
+    private void split(Component component) {
+        List<Node> roots = component.network.getSubnetRoots();
+        if (roots.size() < 2) return;
+        Node biggest = roots.get(0);
+        for (Node root : roots) {
+            if (root.getSubtreeSize() > biggest.getSubtreeSize()) biggest = root;
+        }
+        for (Node root : roots) {
+            if (root == biggest) continue;
+            Component part = new Component(nextId.getAndIncrement());
+            part.lock.lock();
+            try {
+                part.network = component.network.extract(root.getAddress());
+                for (IP host : part.network.list()) {
+                    owners.put(host, part);
+                }
+            } finally {
+                part.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Part of the network with its own lock
+     */
+    private static final class Component {
+        private final long id;
+        private final ReentrantLock lock = new ReentrantLock();
+        private Network network;
+        /**
+         * set when the component got merged into another one, its hosts are then owned by the other component
+         */
+        private boolean retired;
+
+        private Component(long id) {
+            this.id = id;
+        }
+
+        private int size() {
+            return network == null ? 0 : network.size();
+        }
+    }
+}
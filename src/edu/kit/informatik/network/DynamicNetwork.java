@@ -0,0 +1,247 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.graph.LinkCutTree;
+import edu.kit.informatik.graph.Node;
+import edu.kit.informatik.utils.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Network for topologies with a lot of connections going up and down. It keeps no node trees which would have to be
+ * re-rooted, every subnet is stored in a {@link LinkCutTree}, so connect, disconnect, routes and distances cost
+ * amortized O(log n) no matter how deep the subnets are. The methods behave like the ones of {@link Network}, the
+ * other queries are available after converting it with {@link #toNetwork()}.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class DynamicNetwork {
+
+    /**
+     * every host of the network, hosts without connections are removed
+     */
+    private final LinkCutTree forest = new LinkCutTree();
+
+    /**
+     * Creates an empty network
+     */
+    public DynamicNetwork() {
+    }
+
+    /**
+     * Creates a network with every connection of a network
+     *
+     * @param network network to copy
+     */
+    public DynamicNetwork(final Network network) {
+        add(network);
+    }
+
+    /**
+     * Creates a network with every connection of a compact network, without building node trees first
+     *
+     * @param network network to copy
+     */
+    public DynamicNetwork(final CompactNetwork network) {
+        for (int host = 0; host < network.size(); host++) {
+            int parent = network.parent(host);
+            // the connections of a forest never close a circle, in whichever order they are linked
+            if (parent >= 0) link(network.address(host), network.address(parent));
+        }
+    }
+
+    /**
+     * Adding a subnet to the network, see {@link Network#add(Network)}. The connections of a tree are linked one
+     * after another, if one of them would close a circle the ones which were already linked are cut again.
+     *
+     * @param subnet subnetwork
+     * @return true if the subnet changed the network
+     */
+    public boolean add(final Network subnet) {
+        if (subnet == null) return false;
+        boolean changed = false;
+        for (Node tree : subnet.getSubnetRoots()) {
+            List<Node> hosts = Graph.getNodes(tree);
+            List<Node> linked = new ArrayList<>();
+            boolean circle = false;
+            for (Node host : hosts) {
+                Node parent = host.getParent();
+                if (parent == null || areNeighbours(host.getAddress(), parent.getAddress())) continue;
+                if (!link(host.getAddress().toInt(), parent.getAddress().toInt())) {
+                    circle = true;
+                    break;
+                }
+                linked.add(host);
+            }
+            if (circle) {
+                for (Node host : linked) {
+                    unlink(host.getAddress().toInt(), host.getParent().getAddress().toInt());
+                }
+                continue;
+            }
+            changed = changed || !linked.isEmpty();
+        }
+        return changed;
+    }
+
+    /**
+     * Connecting two existing IP-Addresses of different subnets, see {@link Network#connect(IP, IP)}
+     *
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @return boolean if the connection was successful
+     */
+    public boolean connect(final IP ip1, final IP ip2) {
+        if (!contains(ip1) || !contains(ip2)) return false;
+        return link(ip1.toInt(), ip2.toInt());
+    }
+
+    /**
+     * Disconnecting two IP-Addresses, see {@link Network#disconnect(IP, IP)}. Hosts without connections are removed
+     * from the network.
+     *
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @return boolean if the disconnection was successful
+     */
+    public boolean disconnect(final IP ip1, final IP ip2) {
+        if (!contains(ip1) || !contains(ip2) || size() <= 2) return false;
+        if (!forest.cut(ip1.toInt(), ip2.toInt())) return false;
+        release(ip1.toInt());
+        release(ip2.toInt());
+        return true;
+    }
+
+    /**
+     * checks if a specific IP is part of the network
+     *
+     * @param ip IP-Address you want to check
+     * @return true of false
+     */
+    public boolean contains(final IP ip) {
+        return ip != null && forest.contains(ip.toInt());
+    }
+
+    /**
+     * Getting the number of hosts
+     *
+     * @return number of hosts
+     */
+    public int size() {
+        return forest.size();
+    }
+
+    /**
+     * returns a list of all IP-Addresses
+     *
+     * @return list of all IP addresses in ascending order
+     */
+    public List<IP> list() {
+        int[] hosts = CompactNetwork.sortUnsigned(forest.keys());
+        List<IP> allAddresses = new ArrayList<>(hosts.length);
+        for (int host : hosts) {
+            allAddresses.add(IP.of(host));
+        }
+        return allAddresses;
+    }
+
+    /**
+     * Checking if two hosts are part of the same subnet
+     *
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @return true if there is a route between both hosts
+     */
+    public boolean isConnected(final IP ip1, final IP ip2) {
+        return ip1 != null && ip2 != null && forest.connected(ip1.toInt(), ip2.toInt());
+    }
+
+    /**
+     * Getting a rout from one ip to another
+     *
+     * @param start starting point
+     * @param end   destination
+     * @return list of IPs which represents the rout between two IPs, empty if there is none
+     */
+    public List<IP> getRoute(final IP start, final IP end) {
+        List<IP> path = new ArrayList<>();
+        if (start == null || end == null) return path;
+        for (int host : forest.route(start.toInt(), end.toInt())) {
+            path.add(IP.of(host));
+        }
+        return path;
+    }
+
+    /**
+     * Getting the length of the rout from one ip to another
+     *
+     * @param start starting point
+     * @param end   destination
+     * @return number of connections between both IPs or -1 if there is no rout
+     */
+    public int getDistance(final IP start, final IP end) {
+        if (start == null || end == null) return -1;
+        return forest.distance(start.toInt(), end.toInt());
+    }
+
+    /**
+     * Converting the network into a {@link Network}, every subnet keeps the orientation it currently has in the
+     * link cut tree
+     *
+     * @return network with the same connections
+     * @throws IllegalStateException if the network is empty
+     */
+    public Network toNetwork() {
+        int[] hosts = forest.keys();
+        int[] parentAddresses = new int[hosts.length];
+        for (int i = 0; i < hosts.length; i++) {
+            parentAddresses[i] = forest.parent(hosts[i]);
+        }
+        return new CompactNetwork(hosts, parentAddresses).toNetwork();
+    }
+
+    private boolean areNeighbours(IP first, IP second) {
+        return forest.distance(first.toInt(), second.toInt()) == 1;
+    }
+
+    /**
+     * Linking two hosts, hosts which are new get added first and are removed again if the link fails
+     *
+     * @param first  first IP-Address as int
+     * @param second second IP-Address as int
+     * @return true if the connection was added
+     */
+    boolean link(int first, int second) {
+        forest.add(first);
+        forest.add(second);
+        if (!forest.link(first, second)) {
+            if (forest.degree(first) == 0) forest.remove(first);
+            if (forest.degree(second) == 0) forest.remove(second);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Cutting the connection between two hosts, unlike {@link #disconnect(IP, IP)} even the last one. Hosts without
+     * connections are removed.
+     *
+     * @param first  first IP-Address as int
+     * @param second second IP-Address as int
+     * @return true if the connection existed
+     */
+    boolean unlink(int first, int second) {
+        if (!forest.cut(first, second)) return false;
+        release(first);
+        release(second);
+        return true;
+    }
+
+    /**
+     * Removing a host which has no connections left after one of them was cut
+     */
+    private void release(int host) {
+        if (forest.degree(host) == 0) forest.remove(host);
+    }
+}
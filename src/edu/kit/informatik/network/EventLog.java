@@ -0,0 +1,74 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listener which keeps the latest events of a network in a ring buffer of fixed size. Consumers remember the
+ * sequence number they have seen last and fetch everything after it, possibly from another thread. A consumer
+ * which falls behind by more than the capacity has lost events and has to read the whole network again.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class EventLog implements NetworkListener {
+
+    private final NetworkEvent[] events;
+    /**
+     * sequence number of the next event which gets stored
+     */
+    private long next;
+    /**
+     * sequence number of the oldest event in the buffer
+     */
+    private long oldest;
+
+    /**
+     * Creates an empty log
+     *
+     * @param capacity number of events which are kept
+     */
+    public EventLog(final int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity has to be positive");
+        this.events = new NetworkEvent[capacity];
+    }
+
+    @Override
+    public synchronized void changed(final List<NetworkEvent> batch) {
+        for (NetworkEvent event : batch) {
+            if (next == oldest) {
+                // the first event decides where the numbering of the network starts
+                next = event.getSequence();
+                oldest = next;
+            }
+            events[(int) (next % events.length)] = event;
+            next++;
+            if (next - oldest > events.length) oldest = next - events.length;
+        }
+    }
+
+    /**
+     * Getting the sequence number the next event will have
+     *
+     * @return number of the next event
+     */
+    public synchronized long nextSequence() {
+        return next;
+    }
+
+    /**
+     * Getting every stored event starting with a sequence number
+     *
+     * @param sequence number of the first event to return, usually the last seen one plus one
+     * @return events in order, empty if there are no newer events
+     * @throws IllegalStateException if some of the requested events were already overwritten
+     */
+    public synchronized List<NetworkEvent> since(final long sequence) {
+        if (sequence < oldest) throw new IllegalStateException("events since " + sequence + " were overwritten");
+        List<NetworkEvent> result = new ArrayList<>((int) Math.max(0, next - sequence));
+        for (long current = sequence; current < next; current++) {
+            result.add(events[(int) (current % events.length)]);
+        }
+        return result;
+    }
+}
@@ -3,7 +3,7 @@
 
 import edu.kit.informatik.exceptions.ParseException;
 
-import java.util.regex.Pattern;
+import java.io.IOException;
 
 /**
  * Class which represents an IP
@@ -12,41 +12,142 @@
  * @version 1.0
  */
 public class IP implements Comparable<IP> {
-    private static final String VALID_ADDRESS
-        = "^((25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.){3}(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$";
-    private static final String CHECK_ZERO
-        = "^([1-9][0-9]{0,2}|0)\\.([1-9][0-9]{0,2}|0)\\.([1-9][0-9]{0,2}|0)\\.([1-9][0-9]{0,2}|0)$";
+    private static final String INVALID_ADDRESS = "Error: not a valid IP address";
     private static final int MAX_IP_LENGTH_BITS = 24;
     private static final int BIT_SHIFT_CONSTANT = 8;
     private static final int MAX_IP_LENGTH_BYTES = 3;
     private static final int BIT_MASK = 0xFF;
-    private int ipAddress;
+    private static final int MAX_OCTET = 255;
+    private static final int DECIMAL = 10;
+    private static final int CACHE_BITS = 16;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    /**
+     * direct mapped cache of canonical instances, a slot only ever gets replaced by another valid instance so it
+     * can be read and written without locking
+     */
+    private static final IP[] CACHE = new IP[1 << CACHE_BITS];
+    private final int ipAddress;
 
 
     /**
      * Initializes a new IP
      *
      * @param pointNotation IP-Address as String in point notation
+     * @throws ParseException if the string is not a valid IP-Address
      */
     public IP(final String pointNotation) throws ParseException {
-        String[] parts = pointNotation.split("\\.");
-        if (Pattern.matches(VALID_ADDRESS, pointNotation) && Pattern.matches(CHECK_ZERO, pointNotation)) {
-            ipAddress = 0;
-            for (int i = 0; i < parts.length; i++) {
-                ipAddress += (Integer.parseInt(parts[i]) << (MAX_IP_LENGTH_BITS - (BIT_SHIFT_CONSTANT * i)));
+        ipAddress = parseInt(pointNotation, 0, pointNotation.length());
+    }
+
+    /**
+     * Initializes a new IP from an address packed into an int
+     *
+     * @param address IP-Address as int
+     */
+    public IP(final int address) {
+        ipAddress = address;
+    }
+
+    /**
+     * Getting the canonical instance of an address packed into an int
+     *
+     * @param address IP-Address as int
+     * @return cached instance if there is one, otherwise a new instance which gets cached
+     */
+    public static IP of(final int address) {
+        int slot = (address * HASH_MULTIPLIER) >>> (Integer.SIZE - CACHE_BITS);
+        IP cached = CACHE[slot];
+        if (cached != null && cached.ipAddress == address) return cached;
+        IP created = new IP(address);
+        CACHE[slot] = created;
+        return created;
+    }
+
+    /**
+     * Parsing an IP-Address in point notation from a part of a char sequence without creating any strings
+     *
+     * @param text  text which contains the address
+     * @param start index of the first character of the address
+     * @param end   index after the last character of the address
+     * @return canonical instance of the address
+     * @throws ParseException if the characters are not a valid IP-Address
+     */
+    public static IP parse(final CharSequence text, final int start, final int end) throws ParseException {
+        return of(parseInt(text, start, end));
+    }
+
+    private static int parseInt(CharSequence text, int start, int end) throws ParseException {
+        int address = 0;
+        int position = start;
+        for (int octet = 0; octet <= MAX_IP_LENGTH_BYTES; octet++) {
+            if (octet > 0) {
+                if (position >= end || text.charAt(position) != '.') throw new ParseException(INVALID_ADDRESS);
+                position++;
             }
-        } else {
-            throw new ParseException("Error: not a valid IP address");
+            int value = 0;
+            int digits = 0;
+            for (; position < end && isDigit(text.charAt(position)); position++) {
+                // leading zeros aren't allowed
+                if (digits > 0 && value == 0) throw new ParseException(INVALID_ADDRESS);
+                value = value * DECIMAL + (text.charAt(position) - '0');
+                if (value > MAX_OCTET) throw new ParseException(INVALID_ADDRESS);
+                digits++;
+            }
+            if (digits == 0) throw new ParseException(INVALID_ADDRESS);
+            address = (address << BIT_SHIFT_CONSTANT) | value;
+        }
+        if (position != end) throw new ParseException(INVALID_ADDRESS);
+        return address;
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    /**
+     * Getting the address packed into an int
+     *
+     * @return IP-Address as int
+     */
+    public int toInt() {
+        return ipAddress;
+    }
+
+    /**
+     * Writing the address in point notation without creating intermediate strings
+     *
+     * @param builder builder the address gets appended to
+     * @return the same builder
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        try {
+            writeTo(builder);
+        } catch (IOException e) {
+            // a StringBuilder never fails to append
+            throw new IllegalStateException(e.getMessage());
+        }
+        return builder;
+    }
+
+    /**
+     * Writing the address in point notation character by character
+     *
+     * @param out target of the address
+     * @throws IOException if writing to the target fails
+     */
+    public void writeTo(Appendable out) throws IOException {
+        for (int shift = MAX_IP_LENGTH_BITS; shift >= 0; shift -= BIT_SHIFT_CONSTANT) {
+            int octet = (ipAddress >>> shift) & BIT_MASK;
+            if (octet >= DECIMAL * DECIMAL) out.append((char) ('0' + octet / (DECIMAL * DECIMAL)));
+            if (octet >= DECIMAL) out.append((char) ('0' + octet / DECIMAL % DECIMAL));
+            out.append((char) ('0' + octet % DECIMAL));
+            if (shift > 0) out.append('.');
         }
     }
 
     @Override
     public String toString() {
-        StringBuilder temp = new StringBuilder();
-        for (int i = 0; i <= MAX_IP_LENGTH_BYTES; i++) {
-            temp.insert(0, ((ipAddress >> BIT_SHIFT_CONSTANT * i) & BIT_MASK) + ".");
-        }
-        return temp.substring(0, temp.length() - 1);
+        return appendTo(new StringBuilder()).toString();
     }
 
     @Override
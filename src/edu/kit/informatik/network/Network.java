@@ -2,16 +2,30 @@
 
 
 import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.graph.CanonicalForm;
+import edu.kit.informatik.graph.DisjointSet;
+import edu.kit.informatik.graph.IntIntMap;
+import edu.kit.informatik.graph.LcaIndex;
 import edu.kit.informatik.graph.Node;
+import edu.kit.informatik.graph.NodeIndex;
+import edu.kit.informatik.graph.TreeMetrics;
 import edu.kit.informatik.utils.AddressParser;
 import edu.kit.informatik.utils.Graph;
 import edu.kit.informatik.utils.GraphRules;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 
 /**
@@ -23,7 +37,33 @@
 public class Network {
 
     private List<Node> subnets = new ArrayList<>();
-    private SortedSet<Node> allNodes = new TreeSet<>();
+    private final SortedSet<Node> allNodes = new TreeSet<>();
+    private final NodeIndex index = new NodeIndex();
+    /**
+     * addresses of the same subnet, a subnet which falls apart gets its smaller part moved into a set of its own
+     */
+    private final DisjointSet components = new DisjointSet();
+    /**
+     * lowest common ancestor index of every subnet which was queried since it last changed, keyed by the slot of
+     * the subnet in {@link #components}
+     */
+    private final Map<Integer, LcaIndex> lcaIndexes = new HashMap<>();
+    /**
+     * metrics of every subnet which was queried since it last changed, with the same keys as {@link #lcaIndexes}
+     */
+    private final Map<Integer, TreeMetrics> treeMetrics = new HashMap<>();
+    /**
+     * version which gets changed together with the nodes, null until the first snapshot was requested
+     */
+    private NetworkSnapshot working;
+    private volatile NetworkSnapshot published;
+    private long[] signatures;
+    private final List<NetworkListener> listeners = new ArrayList<>();
+    /**
+     * events of the running operation, they are handed to the listeners together when it is done
+     */
+    private final List<NetworkEvent> pending = new ArrayList<>();
+    private long nextEvent;
 
     private final Node networkRoot;
 
@@ -37,7 +77,7 @@ public Network(final IP root, final List<IP> children) {
         if (children.isEmpty()) throw new RuntimeException();
         this.networkRoot = new Node(root, Graph.convertToNode(children));
         this.subnets.add(this.networkRoot);
-        allNodes.addAll(Graph.updateAllNodes(this.subnets));
+        registerSubnets();
         if (GraphRules.betterIsCircular(this.networkRoot)) throw new IllegalArgumentException("ERROR: Circular Tree");
     }
 
@@ -48,25 +88,45 @@ public Network(final IP root, final List<IP> children) {
      * @throws ParseException invalid bracket notation
      */
     public Network(final String bracketNotation) throws ParseException {
-        if (bracketNotation == null || bracketNotation.split(" ").length <= 1)
-            throw new ParseException("Invalid bracket notation");
+        if (bracketNotation == null) throw new ParseException("Invalid bracket notation");
         networkRoot = AddressParser.bracketParser(bracketNotation);
         this.subnets.add(networkRoot);
-        allNodes.addAll(Graph.updateAllNodes(subnets));
+        registerSubnets();
         if (GraphRules.betterIsCircular(networkRoot)) throw new ParseException("ERROR: Circular Tree");
     }
 
-    private Network(List<Node> subNets) throws ParseException {
-        for (Node subnet : subNets) {
-            this.subnets.add(subnet.copy());
-        }
+    /**
+     * Creates a new NodeTree from bracket notation which is read from a stream
+     *
+     * @param bracketNotation reader which delivers the network in bracket notation
+     * @throws ParseException invalid bracket notation
+     * @throws IOException    if reading fails
+     */
+    public Network(final Reader bracketNotation) throws ParseException, IOException {
+        if (bracketNotation == null) throw new ParseException("Invalid bracket notation");
+        networkRoot = AddressParser.bracketParser(bracketNotation);
+        this.subnets.add(networkRoot);
+        registerSubnets();
+        if (GraphRules.betterIsCircular(networkRoot)) throw new ParseException("ERROR: Circular Tree");
+    }
+
+    /**
+     * Creates a network which takes over already built subnets without copying them
+     *
+     * @param subNets root nodes of the subnets
+     * @throws ParseException if the first subnet is circular
+     */
+    Network(List<Node> subNets) throws ParseException {
+        this.subnets.addAll(subNets);
         networkRoot = subnets.get(0);
-        allNodes = Graph.updateAllNodes(this.subnets);
+        registerSubnets();
         if (GraphRules.betterIsCircular(networkRoot)) throw new ParseException("ERROR: Circular Tree");
     }
 
     /**
-     * Adding a subnet to the network
+     * Adding a subnet to the network. Every connection of the subnet gets added, hosts which exist in both networks
+     * are the points where both networks are joined. A tree of the subnet which would close a circle is rejected as
+     * a whole.
      *
      * @param subnet subnetwork
      * @return true or false depending on if subnet gets actually connected to main-net
@@ -74,109 +134,175 @@ private Network(List<Node> subNets) throws ParseException {
     public boolean add(final Network subnet) {
         if (subnet == null) return false;
         boolean changed = false;
-        try {
-
-            Network subnetCopy = new Network(subnet.getSubnets());
+        for (Node tree : subnet.getSubnetRoots()) {
+            List<Node> hosts = Graph.getNodes(tree);
+            if (closesCircle(hosts)) continue;
+            changed = mergeTree(hosts) || changed;
+        }
+        if (changed) {
+            changed();
+            publish();
+        }
+        return changed;
+    }
 
-            List<Node> independentTrees = new ArrayList<>();
-            List<Node> dependentTrees = new ArrayList<>();
+    /**
+     * Getting the root of every tree of the network exactly once
+     *
+     * @return roots of all subnets
+     */
+    List<Node> getSubnetRoots() {
+        Map<Node, Boolean> seen = new IdentityHashMap<>();
+        List<Node> roots = new ArrayList<>();
+        for (Node subnet : this.subnets) {
+            Node root = Graph.getSubnetRoot(subnet);
+            if (seen.put(root, Boolean.TRUE) == null) roots.add(root);
+        }
+        return roots;
+    }
 
-            List<Node> subnets = Graph.removeForDuplicates(this.subnets, subnetCopy.subnets);
-            List<Node> subnetsUsed = new ArrayList<>();
-            if (subnets.isEmpty()) return false;
-            for (Node root : this.subnets) {
-                subnets.removeAll(subnetsUsed);
-                for (Node subnetNode : subnets) {
+    /**
+     * Checking if the connections of a foreign tree would close a circle. Every host which already exists is
+     * represented by its subnet, every new host by itself, so one union find pass over the connections is enough.
+     *
+     * @param hosts every node of the foreign tree
+     * @return true if adding the tree would close a circle
+     */
+    private boolean closesCircle(List<Node> hosts) {
+        DisjointSet sets = components;
+        IntIntMap positions = new IntIntMap(hosts.size());
+        for (int i = 0; i < hosts.size(); i++) {
+            positions.put(hosts.get(i).getAddress().toInt(), i);
+        }
+        DisjointSet merged = new DisjointSet();
+        for (Node host : hosts) {
+            Node parent = host.getParent();
+            if (parent == null || isConnected(host.getAddress(), parent.getAddress())) continue;
+            if (!merged.union(mergeKey(host, sets, positions), mergeKey(parent, sets, positions))) return true;
+        }
+        return false;
+    }
 
-                    boolean thisChanged
-                        = this.connectNodes(root, subnetNode, subnetCopy, independentTrees, dependentTrees);
-                    if (thisChanged) subnetsUsed.add(subnetNode);
-                    changed = changed || thisChanged;
+    private int mergeKey(Node host, DisjointSet sets, IntIntMap positions) {
+        int address = host.getAddress().toInt();
+        // existing hosts use the non negative slot of their subnet, new hosts a negative key of their own
+        if (index.get(address) != null) return sets.find(address);
+        return -1 - positions.get(address);
+    }
 
-                }
-            }
+    /**
+     * checks if two existing IP-Addresses are directly connected
+     *
+     * @param first  first IP
+     * @param second second IP
+     * @return true if one is the parent of the other
+     */
+    private boolean isConnected(IP first, IP second) {
+        Node firstNode = index.get(first);
+        Node secondNode = index.get(second);
+        if (firstNode == null || secondNode == null) return false;
+        return firstNode.getParent() == secondNode || secondNode.getParent() == firstNode;
+    }
 
-            this.subnets.addAll(independentTrees);
-            for (Node independent : independentTrees) {
-                allNodes.addAll(Graph.getAsList(independent));
-                changed = true;
+    /**
+     * Adding every connection of a foreign tree which doesn't close a circle. The tree is walked undirected starting
+     * at a shared host if there is one, so every new host gets attached to a node which is already part of the
+     * network.
+     *
+     * @param hosts every node of the foreign tree, starting with its root
+     * @return true if at least one connection was added
+     */
+    private boolean mergeTree(List<Node> hosts) {
+        Node start = hosts.get(0);
+        for (Node host : hosts) {
+            if (index.contains(host.getAddress())) {
+                start = host;
+                break;
             }
-
-            List<Node> used = new ArrayList<>();
-            List<Node> rootUsed = new ArrayList<>();
-            for (Node root : this.subnets) {
-                if (!used.contains(root) && !rootUsed.contains(root)) {
-                    this.subnets.forEach(
-                        other -> mergeInternSubnets(root, other, rootUsed, used));
+        }
+        boolean changed = false;
+        Node startNode = index.get(start.getAddress());
+        if (startNode == null) {
+            startNode = new Node(start.getAddress(), new ArrayList<>());
+            this.subnets.add(startNode);
+            register(startNode);
+        }
+        List<Node[]> queue = new ArrayList<>();
+        queue.add(new Node[] {start, null, startNode});
+        for (int head = 0; head < queue.size(); head++) {
+            Node[] entry = queue.get(head);
+            Node foreign = entry[0];
+            Node own = entry[2];
+            for (Node neighbour : Graph.getNeighbours(foreign)) {
+                if (neighbour == entry[1]) continue;
+                Node target = index.get(neighbour.getAddress());
+                if (target == null) {
+                    touched(own);
+                    target = new Node(neighbour.getAddress(), new ArrayList<>());
+                    own.addChildren(List.of(target));
+                    register(target);
+                    linked(own, target);
+                    changed = true;
+                } else if (!isConnected(own.getAddress(), target.getAddress())) {
+                    // joining another subnet, it gets re-rooted at the shared host and attached below
+                    touched(own);
+                    touched(target);
+                    if (target.getParent() != null) betterChangeRoot(target.getAddress(), null);
+                    this.subnets.remove(target);
+                    own.addChildren(List.of(target));
+                    components.union(own.getAddress().toInt(), target.getAddress().toInt());
+                    linked(own, target);
+                    emit(NetworkEvent.Type.SUBNETS_MERGED, own.getAddress(), target.getAddress());
+                    changed = true;
                 }
+                queue.add(new Node[] {neighbour, foreign, target});
             }
-
-            this.subnets.removeAll(used);
-
-
-        } catch (ParseException e) {
-            e.printStackTrace();
         }
-
         return changed;
     }
 
-
     /**
-     * Merge subnets after extern subnets have been merged
+     * Taking over every subnet of another network without copying its nodes, the other network must not be used
+     * afterwards. The cost is linear in the number of hosts which are taken over.
      *
-     * @param root     MainNetwork root
-     * @param other    other network in main network subnets
-     * @param rootUsed list of already tried merged subnets
-     * @param used     list of successfully merged subnets
+     * @param other network which gets emptied
      */
-    void mergeInternSubnets(Node root, Node other, List<Node> rootUsed, List<Node> used) {
-
-        if (root != other && !used.contains(other) && !rootUsed.contains(other)) {
-            boolean thisChanged
-                = this.connectNodes(root, other, this, new ArrayList<>(), new ArrayList<>());
-            if (thisChanged) used.add(other);
-            if (thisChanged && !rootUsed.contains(root)) rootUsed.add(root);
+    void absorb(Network other) {
+        changed();
+        for (Node root : other.getSubnetRoots()) {
+            this.subnets.add(root);
+            for (Node node : Graph.getNodes(root)) {
+                register(node);
+                if (node.getParent() != null) linked(node.getParent(), node);
+            }
         }
+        publish();
     }
 
-
-    private boolean connectNodes(Node root, Node sub, Network subnet, List<Node> toAdd, List<Node> added) {
-        IP connection = Graph.findConnection(getLevels(root.getAddress()), sub);
-        if (connection != null) {
-            try {
-                Network subnetCopy = new Network(subnet.getSubnets());
-                Node connectionSub;
-                Node connectionRoot;
-                if (subnet == this) {
-                    connectionRoot = this.getAsNode(connection, this.subnets.indexOf(root));
-                    connectionSub = subnetCopy.getAsNode(connection, this.subnets.indexOf(sub));
-                    subnetCopy.betterChangeRoot(connection, null, this.subnets.indexOf(sub));
-                } else {
-                    connectionRoot = this.getAsNode(connection, -1);
-                    connectionSub = subnetCopy.getAsNode(connection, -1);
-                    subnetCopy.betterChangeRoot(connection, null);
-                }
-                Node tempRoot = connectionRoot.copy();
-                Graph.connectChildrenNodes(tempRoot, connectionSub, subnetCopy);
-                if (Graph.getAsList(connectionRoot).size() == Graph.getAsList(tempRoot).size()) return false;
-                if (GraphRules.betterIsCircular(tempRoot)) {
-                    return false;
-                } else {
-                    Graph.connectChildrenNodes(connectionRoot, connectionSub, subnetCopy);
-                    allNodes.addAll(Graph.updateAllNodes(List.of(connectionRoot)));
-                }
-
-                if (!added.contains(sub)) added.add(sub);
-                toAdd.remove(sub);
-                return true;
-            } catch (ParseException e) {
-                e.printStackTrace();
-            }
-        } else {
-            if (!added.contains(sub) && !toAdd.contains(sub)) toAdd.add(sub);
+    /**
+     * Removing the subnet of a host and handing its nodes over to a new network without copying them. The cost is
+     * linear in the number of hosts of the subnet.
+     *
+     * @param host any host of the subnet
+     * @return new network which consists of the subnet
+     */
+    Network extract(IP host) {
+        Node root = Graph.getSubnetRoot(index.get(host));
+        touched(root);
+        changed();
+        this.subnets.remove(root);
+        for (Node node : Graph.getNodes(root)) {
+            if (node.getParent() != null) unlinked(node.getParent(), node);
+            unregister(node);
+        }
+        if (components.unused() > allNodes.size()) rebuildComponents();
+        publish();
+        try {
+            return new Network(new ArrayList<>(List.of(root)));
+        } catch (ParseException e) {
+            // the subnet was part of this network, so it isn't circular
+            throw new IllegalStateException(e.getMessage());
         }
-        return false;
     }
 
     /**
@@ -192,6 +318,15 @@ public List<IP> list() {
         return allAddresses;
     }
 
+    /**
+     * Getting the number of hosts
+     *
+     * @return number of hosts
+     */
+    public int size() {
+        return allNodes.size();
+    }
+
     /**
      * Connecting two existing IP-Addresses
      *
@@ -202,29 +337,25 @@ public List<IP> list() {
     public boolean connect(final IP ip1, final IP ip2) {
         boolean ipsAreNull = ip1 == null || ip2 == null;
         if (ipsAreNull) return false;
-        boolean ipsDontExists = GraphRules.checkIP(ip1, allNodes) || GraphRules.checkIP(ip2, allNodes);
+        boolean ipsDontExists = GraphRules.checkIP(ip1, index) || GraphRules.checkIP(ip2, index);
         if (ipsDontExists || ip1.compareTo(ip2) == 0) return false;
 
+        // both addresses in the same subnet means the new connection would close a circle
+        if (components.connected(ip1.toInt(), ip2.toInt())) return false;
+
         Node node1 = getAsNode(ip1, -1);
         Node node2 = getAsNode(ip2, -1);
-        Node netRoot = Graph.getSubnetRoot(getAsNode(ip1, -1));
-        //check if connections works with a copy
-        Node netCopy = netRoot.copy();
-        SortedSet<Node> netNodes = Graph.getAsList(netCopy);
-
-        if (netNodes.stream().anyMatch(x -> x.getAddress().compareTo(ip2) == 0)) return false;
-        Node mergePoint = netNodes.stream().filter(x -> x.getAddress().compareTo(ip1) == 0).findFirst().get();
-
-        if (ip2.compareTo(Graph.getSubnetRoot(node2).getAddress()) != 0) betterChangeRoot(ip2, null);
-        Node oldSubnet = Graph.getSubnetRoot(node1);
-        mergePoint.addChildren(List.of(node2));
-
-        if (GraphRules.betterIsCircular(netCopy)) {
-            return false;
-        }
-        // if not circular add to real node
+        touched(node1);
+        touched(node2);
+        if (node2.getParent() != null) betterChangeRoot(ip2, null);
         node1.addChildren(List.of(node2));
-        this.subnets.remove(oldSubnet);
+        // node2 was the root of its subnet, which is now part of the subnet of node1
+        this.subnets.remove(node2);
+        components.union(ip1.toInt(), ip2.toInt());
+        linked(node1, node2);
+        emit(NetworkEvent.Type.SUBNETS_MERGED, ip1, ip2);
+        changed();
+        publish();
         return true;
     }
 
@@ -236,7 +367,7 @@ public boolean connect(final IP ip1, final IP ip2) {
      * @return boolean if the disconnection was successful
      */
     public boolean disconnect(final IP ip1, final IP ip2) {
-        if (ip1 == null || ip2 == null || GraphRules.checkIP(ip1, allNodes) || GraphRules.checkIP(ip2, allNodes))
+        if (ip1 == null || ip2 == null || GraphRules.checkIP(ip1, index) || GraphRules.checkIP(ip2, index))
             return false;
         Node node1 = getAsNode(ip1, -1);
         Node node2 = getAsNode(ip2, -1);
@@ -263,23 +394,77 @@ public boolean disconnect(final IP ip1, final IP ip2) {
      * @param node2 Second IP
      */
     public void removeConnection(Node node1, Node node2) {
+        touched(node1);
+        changed();
+        unlinked(node1, node2);
         if (node2.getChildren().isEmpty()) {
             node1.getChildren().remove(node2);
-            this.allNodes.remove(node2);
+            node1.childrenChanged();
+            unregister(node2);
             if (node1.getChildren().isEmpty() && node1.getParent() == null) {
-                this.allNodes.remove(node1);
+                unregister(node1);
                 this.subnets.remove(node1);
             }
 
         } else {
             node1.getChildren().remove(node2);
+            node1.childrenChanged();
             node2.setParent(null);
             this.subnets.add(node2);
-            if (node1.getChildren().isEmpty()) {
+            if (node1.getChildren().isEmpty() && node1.getParent() == null) {
                 this.subnets.remove(node1);
-                this.allNodes.remove(node1);
+                unregister(node1);
+            } else {
+                splitComponents(node1, node2);
+                emit(NetworkEvent.Type.SUBNET_SPLIT, node1.getAddress(), node2.getAddress());
             }
         }
+        publish();
+    }
+
+    /**
+     * Moving the smaller of two subnets which were just separated into a set of its own. Both subnets are walked at
+     * the same pace and the walk stops as soon as one of them is complete, so the cost is linear in the size of the
+     * smaller subnet. The union find structure gets rebuilt once it has more unused slots than hosts.
+     *
+     * @param first  host of the first subnet
+     * @param second host of the second subnet
+     */
+    private void splitComponents(Node first, Node second) {
+        List<Node> firstHosts = new ArrayList<>(List.of(first));
+        List<Node> firstFrom = new ArrayList<>(Collections.singletonList(null));
+        List<Node> secondHosts = new ArrayList<>(List.of(second));
+        List<Node> secondFrom = new ArrayList<>(Collections.singletonList(null));
+        int head = 0;
+        while (head < firstHosts.size() && head < secondHosts.size()) {
+            visit(firstHosts, firstFrom, head);
+            visit(secondHosts, secondFrom, head);
+            head++;
+        }
+        List<Node> smaller = head == firstHosts.size() ? firstHosts : secondHosts;
+        if (components.unused() + smaller.size() > allNodes.size()) {
+            rebuildComponents();
+            return;
+        }
+        int representative = smaller.get(0).getAddress().toInt();
+        for (Node host : smaller) {
+            components.remove(host.getAddress().toInt());
+        }
+        for (Node host : smaller) {
+            components.union(representative, host.getAddress().toInt());
+        }
+    }
+
+    /**
+     * Adding the neighbours of a host to a breadth first walk over the undirected tree
+     */
+    private static void visit(List<Node> hosts, List<Node> from, int position) {
+        Node host = hosts.get(position);
+        for (Node neighbour : Graph.getNeighbours(host)) {
+            if (neighbour == from.get(position)) continue;
+            hosts.add(neighbour);
+            from.add(host);
+        }
     }
 
     /**
@@ -290,84 +475,385 @@ public void removeConnection(Node node1, Node node2) {
      */
     public boolean contains(final IP ip) {
         if (ip == null) return false;
-        return !GraphRules.checkIP(ip, allNodes);
+        return !GraphRules.checkIP(ip, index);
     }
 
     /**
-     * Searching for the maximum depth of the tree
+     * Searching for the maximum depth of the tree by counting its layers, the stored orientation of the tree stays
+     * untouched
      *
      * @param root root ip for the network/starting point
      * @return returning the height/depth of the tree
      */
     public int getHeight(final IP root) {
+        if (root == null || GraphRules.checkIP(root, index)) return 0;
+        return Graph.getHeight(index.get(root));
+    }
 
-        if (root == null || GraphRules.checkIP(root, allNodes)) return 0;
-        Node rootNode = Graph.getSubnetRoot(getAsNode(root, -1));
-        if (root.compareTo(rootNode.getAddress()) != 0) {
-            betterChangeRoot(root, null);
+    /**
+     * Getting the length of the longest route in the network
+     *
+     * @return diameter of the network, the longest diameter of all subnets
+     */
+    public int getDiameter() {
+        int diameter = 0;
+        for (Node root : getSubnetRoots()) {
+            diameter = Math.max(diameter, getTreeMetrics(root).getDiameter());
+        }
+        return diameter;
+    }
+
+    /**
+     * Getting the smallest height a tree can have when every subnet is rooted at its best host
+     *
+     * @return radius of the network, the longest radius of all subnets
+     */
+    public int getRadius() {
+        int radius = 0;
+        for (Node root : getSubnetRoots()) {
+            radius = Math.max(radius, getTreeMetrics(root).getRadius());
+        }
+        return radius;
+    }
+
+    /**
+     * Getting the hosts at which every subnet has its smallest height
+     *
+     * @return one or two centers of every subnet in ascending order
+     */
+    public List<IP> getCenters() {
+        List<IP> centers = new ArrayList<>();
+        for (Node root : getSubnetRoots()) {
+            centers.addAll(getTreeMetrics(root).getCenters());
         }
-        return getLevels(Graph.getSubnetRoot(rootNode).getAddress()).size() - 1;
+        Collections.sort(centers);
+        return centers;
     }
 
     /**
-     * Storing all nodes from the same layer into a list
+     * Getting the height of the tree rooted at every host at once
+     *
+     * @return height for every host in the same order as {@link #list()}
+     */
+    public int[] eccentricities() {
+        int[] heights = new int[allNodes.size()];
+        int position = 0;
+        for (Node node : allNodes) {
+            heights[position++] = getTreeMetrics(node).getEccentricity(node.getAddress());
+        }
+        return heights;
+    }
+
+    /**
+     * Storing all nodes from the same layer into a list, the stored orientation of the tree stays untouched
      *
      * @param root root of the network
      * @return list of lists where every list contains every node of each layer
      */
     public List<List<IP>> getLevels(final IP root) {
-        if (root == null || GraphRules.checkIP(root, allNodes)) return new ArrayList<>();
-        Node rootNode = Graph.getSubnetRoot(getAsNode(root, -1));
-        if (root.compareTo(rootNode.getAddress()) != 0) {
-            betterChangeRoot(root, null);
-        }
-        List<List<IP>> layers = new ArrayList<>();
-        layers.add(List.of(Graph.getSubnetRoot(rootNode).getAddress()));
-        for (List<Node> cursor = new ArrayList<>(Graph.getSubnetRoot(rootNode).getChildren()); !cursor.isEmpty();) {
-            layers.add(cursor.stream().map(Node::getAddress).sorted().collect(Collectors.toList()));
-            cursor = cursor.stream().map(Node::getChildren).flatMap(List::stream).collect(Collectors.toList());
-        }
-        return layers;
+        if (root == null || GraphRules.checkIP(root, index)) return new ArrayList<>();
+        return Graph.getLevels(getAsNode(root, -1));
     }
 
+    /**
+     * Getting the layers of the subnet of a host one after another, a layer is only searched when it is requested.
+     * The network must not be changed while the iterator is used.
+     *
+     * @param root root of the network
+     * @return iterator over the addresses of each layer in ascending order, empty if the host doesn't exist
+     */
+    public Iterator<List<IP>> levelIterator(final IP root) {
+        if (root == null || GraphRules.checkIP(root, index)) return Collections.emptyIterator();
+        return Graph.levelIterator(getAsNode(root, -1));
+    }
 
     /**
-     * Getting a rout from one ip to another
+     * Getting the number of hosts below a host, as seen from the root of its subnet
+     *
+     * @param ip IP-Address
+     * @return number of hosts in the subtree including the host itself, 0 if the host doesn't exist
+     */
+    public int subtreeSize(final IP ip) {
+        if (ip == null || GraphRules.checkIP(ip, index)) return 0;
+        return getAsNode(ip, -1).getSubtreeSize();
+    }
+
+    /**
+     * Getting the number of connections from a host down to the deepest host below it, as seen from the root of its
+     * subnet
+     *
+     * @param ip IP-Address
+     * @return height of the subtree, 0 for a leaf or if the host doesn't exist
+     */
+    public int subtreeHeight(final IP ip) {
+        if (ip == null || GraphRules.checkIP(ip, index)) return 0;
+        return getAsNode(ip, -1).getSubtreeHeight();
+    }
+
+
+    /**
+     * Getting a rout from one ip to another, the stored orientation of the tree stays untouched
      *
      * @param start starting point
      * @param end   destination
      * @return list of IPs which represents the rout between two IPs
      */
     public List<IP> getRoute(final IP start, final IP end) {
-        if (start == null || end == null || GraphRules.checkIP(start, allNodes) || GraphRules.checkIP(end, allNodes))
+        if (start == null || end == null || GraphRules.checkIP(start, index) || GraphRules.checkIP(end, index))
             return new ArrayList<>();
+        if (!components.connected(start.toInt(), end.toInt())) return new ArrayList<>();
+        LcaIndex lca = getLcaIndex(index.get(start));
+        return lca.getRoute(lca.getId(start), lca.getId(end));
+    }
+
+    /**
+     * Getting the routes between many pairs of IPs, the index of every subnet is built once for all of them
+     *
+     * @param pairs pairs of starting point and destination
+     * @return read only route for every pair, empty if there is no route or the pair is invalid
+     */
+    public List<List<IP>> getRoutes(final List<IP[]> pairs) {
+        List<List<IP>> routes = new ArrayList<>(pairs.size());
+        Iterator<List<IP>> iterator = getRoutes(pairs.iterator());
+        while (iterator.hasNext()) {
+            routes.add(iterator.next());
+        }
+        return routes;
+    }
+
+    /**
+     * Getting the routes between a stream of pairs of IPs, every route is found when it gets requested. The network
+     * must not be changed while the iterator is used.
+     *
+     * @param pairs pairs of starting point and destination
+     * @return read only route for every pair, empty if there is no route or the pair is invalid
+     */
+    public Iterator<List<IP>> getRoutes(final Iterator<IP[]> pairs) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return pairs.hasNext();
+            }
+
+            @Override
+            public List<IP> next() {
+                IP[] pair = pairs.next();
+                if (pair == null || pair.length != 2 || pair[0] == null || pair[1] == null) return List.of();
+                if (!components.connected(pair[0].toInt(), pair[1].toInt())) return List.of();
+                LcaIndex lca = getLcaIndex(index.get(pair[0]));
+                return lca.getRouteView(lca.getId(pair[0]), lca.getId(pair[1]));
+            }
+        };
+    }
+
+    /**
+     * Getting the length of the rout from one ip to another
+     *
+     * @param start starting point
+     * @param end   destination
+     * @return number of connections between both IPs or -1 if there is no rout
+     */
+    public int getDistance(final IP start, final IP end) {
+        if (start == null || end == null || GraphRules.checkIP(start, index) || GraphRules.checkIP(end, index))
+            return -1;
+        if (!components.connected(start.toInt(), end.toInt())) return -1;
+        LcaIndex lca = getLcaIndex(index.get(start));
+        return lca.getDistance(lca.getId(start), lca.getId(end));
+    }
+
+    /**
+     * Getting the lowest common ancestor index of the subnet of a host, it gets built on the first query after the
+     * subnet changed
+     *
+     * @param host node of the subnet
+     * @return index over the subnet
+     */
+    private LcaIndex getLcaIndex(Node host) {
+        return lcaIndexes.computeIfAbsent(components.find(host.getAddress().toInt()),
+            key -> new LcaIndex(List.of(Graph.getSubnetRoot(host))));
+    }
+
+    /**
+     * Getting an immutable version of the network which can be read from any thread while the network keeps
+     * changing. The first call builds the persistent structure from every connection and must not run concurrently
+     * with changes; afterwards every change publishes a new version by copying only the changed paths, so this
+     * method never blocks and costs nothing.
+     *
+     * @return latest published version
+     */
+    public NetworkSnapshot snapshot() {
+        NetworkSnapshot current = published;
+        if (current != null) return current;
+        NetworkSnapshot built = NetworkSnapshot.empty();
+        for (Node node : allNodes) {
+            if (node.getParent() != null) built = built.link(node.getParent().getAddress(), node.getAddress());
+        }
+        working = built;
+        published = built;
+        return built;
+    }
+
+    private void linked(Node first, Node second) {
+        if (working != null) working = working.link(first.getAddress(), second.getAddress());
+        emit(NetworkEvent.Type.CONNECTION_ADDED, first.getAddress(), second.getAddress());
+    }
+
+    private void unlinked(Node first, Node second) {
+        if (working != null) working = working.unlink(first.getAddress(), second.getAddress());
+        emit(NetworkEvent.Type.CONNECTION_REMOVED, first.getAddress(), second.getAddress());
+    }
+
+    /**
+     * Making every change since the last call visible to readers of {@link #snapshot()} at once and handing its
+     * events to the listeners
+     */
+    private void publish() {
+        if (working != null) published = working;
+        if (pending.isEmpty()) return;
+        List<NetworkEvent> batch = List.copyOf(pending);
+        pending.clear();
+        for (NetworkListener listener : List.copyOf(listeners)) {
+            listener.changed(batch);
+        }
+    }
+
+    /**
+     * Registering a listener which gets the events of every following change. Listeners are called on the thread
+     * which changed the network, after the change is complete.
+     *
+     * @param listener listener
+     */
+    public void addListener(final NetworkListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    /**
+     * Removing a listener
+     *
+     * @param listener listener which was added before
+     * @return true if the listener was registered
+     */
+    public boolean removeListener(final NetworkListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Recording an event of the running operation, events are only numbered while somebody listens
+     */
+    private void emit(NetworkEvent.Type type, IP first, IP second) {
+        if (listeners.isEmpty()) return;
+        pending.add(new NetworkEvent(nextEvent++, type, first, second));
+    }
+
+    /**
+     * Getting the metrics of the subnet of a host, they get computed on the first query after the subnet changed
+     *
+     * @param host node of the subnet
+     * @return metrics of the subnet
+     */
+    private TreeMetrics getTreeMetrics(Node host) {
+        return treeMetrics.computeIfAbsent(components.find(host.getAddress().toInt()),
+            key -> new TreeMetrics(List.of(Graph.getSubnetRoot(host))));
+    }
 
-        betterChangeRoot(end, null);
-        List<IP> path = new ArrayList<>();
-        Node destination = getAsNode(start, -1);
-        //from start node get the path through the parents till end node
-        while (destination.getParent() != null) {
-            path.add(destination.getAddress());
-            destination = destination.getParent();
+    /**
+     * Dropping everything that was derived from the structure of the network
+     */
+    private void changed() {
+        signatures = null;
+    }
+
+    /**
+     * Dropping everything that was derived from the subnet of a host. It has to be called before a connection of
+     * the subnet changes, while the subnet still has its slot in {@link #components}; the orientation of a subnet
+     * doesn't matter.
+     *
+     * @param host node of the subnet
+     */
+    private void touched(Node host) {
+        int key = components.find(host.getAddress().toInt());
+        lcaIndexes.remove(key);
+        treeMetrics.remove(key);
+    }
+
+    /**
+     * Getting the structural signature of every subnet, addresses don't matter. The signatures get computed on the
+     * first call after a change.
+     *
+     * @return sorted signatures, one per subnet
+     */
+    public long[] getSignatures() {
+        if (signatures == null) {
+            List<Node> roots = getSubnetRoots();
+            long[] computed = new long[roots.size()];
+            for (int i = 0; i < computed.length; i++) computed[i] = CanonicalForm.signature(roots.get(i));
+            Arrays.sort(computed);
+            signatures = computed;
         }
-        path.add(destination.getAddress());
-        if (!path.contains(end)) return new ArrayList<>();
-        return path;
+        return signatures.clone();
     }
 
     /**
-     * converts a graph to bracket notation
+     * converts a graph to bracket notation, the stored orientation of the tree stays untouched
      *
      * @param root root of the graph
      * @return tree in bracket notation
      */
     public String toString(IP root) {
-        if (root == null || GraphRules.checkIP(root, allNodes)) return "";
-        Node rootNode = Graph.getSubnetRoot(getAsNode(root, -1));
-        if (root.compareTo(rootNode.getAddress()) != 0) {
-            betterChangeRoot(root, null);
+        StringBuilder bracketNotation = new StringBuilder();
+        try {
+            write(root, bracketNotation);
+        } catch (IOException e) {
+            // a string builder doesn't throw
+            throw new IllegalStateException(e.getMessage());
+        }
+        return bracketNotation.toString();
+    }
+
+    /**
+     * Writing the subnet of a host in bracket notation, with the same output as {@link #toString(IP)} but without
+     * building the whole string first
+     *
+     * @param root root of the graph
+     * @param out  target, for example a writer of a file
+     * @throws IOException if writing to the target fails
+     */
+    public void write(IP root, Appendable out) throws IOException {
+        if (root == null || GraphRules.checkIP(root, index)) return;
+        Graph.writeBracketNotation(getAsNode(root, -1), out);
+    }
+
+    /**
+     * Writing the subnet of a host in bracket notation as ASCII bytes
+     *
+     * @param root root of the graph
+     * @param out  target buffer
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public void write(IP root, ByteBuffer out) {
+        try {
+            write(root, new Appendable() {
+                @Override
+                public Appendable append(CharSequence text) {
+                    return append(text, 0, text.length());
+                }
+
+                @Override
+                public Appendable append(CharSequence text, int start, int end) {
+                    for (int i = start; i < end; i++) append(text.charAt(i));
+                    return this;
+                }
+
+                @Override
+                public Appendable append(char character) {
+                    out.put((byte) character);
+                    return this;
+                }
+            });
+        } catch (IOException e) {
+            // the buffer doesn't throw
+            throw new IllegalStateException(e.getMessage());
         }
-        return Graph.buildBracketNotation(Graph.getSubnetRoot(rootNode)).substring(1);
     }
 
 
@@ -378,8 +864,9 @@ public String toString(IP root) {
      * @param newParent new parent for each node
      */
     public void betterChangeRoot(IP newRoot, Node newParent) {
+        changed();
         Node currentNode = getAsNode(newRoot, -1);
-        subnets = new ArrayList<>(Graph.changeToRoot(currentNode, newParent, subnets));
+        subnets = Graph.changeToRoot(currentNode, newParent, subnets);
 
     }
 
@@ -391,8 +878,9 @@ public void betterChangeRoot(IP newRoot, Node newParent) {
      * @param subnet    index of subnet
      */
     public void betterChangeRoot(IP newRoot, Node newParent, int subnet) {
+        changed();
         Node currentNode = getAsNode(newRoot, subnet);
-        subnets = new ArrayList<>(Graph.changeToRoot(currentNode, newParent, List.copyOf(this.subnets)));
+        subnets = Graph.changeToRoot(currentNode, newParent, this.subnets);
     }
 
     /**
@@ -403,14 +891,68 @@ public void betterChangeRoot(IP newRoot, Node newParent, int subnet) {
      * @return IP-Address as its node
      */
     public Node getAsNode(IP node, int subnet) {
-        if (subnet == -1)
-            return allNodes.stream().filter(x -> x.getAddress().compareTo(node) == 0).findFirst().orElse(null);
+        if (subnet == -1) return index.get(node);
         return Graph.getAsList(this.subnets.get(subnet)).stream().filter(x -> x.getAddress().compareTo(node) == 0)
             .findFirst()
             .orElse(null);
     }
 
 
+    /**
+     * Adding every node of the subnets to the set of all nodes and the address index, each node is visited once
+     */
+    private void registerSubnets() {
+        for (Node subnet : this.subnets) {
+            for (Node node : Graph.getNodes(subnet)) {
+                register(node);
+            }
+        }
+    }
+
+    /**
+     * Adding a node to the set of all nodes and the address index, changes only register the nodes they created
+     *
+     * @param node node which is now part of the network
+     */
+    private void register(Node node) {
+        if (allNodes.add(node)) {
+            index.add(node);
+            emit(NetworkEvent.Type.HOST_ADDED, node.getAddress(), null);
+        }
+        components.add(node.getAddress().toInt());
+        if (node.getParent() != null)
+            components.union(node.getAddress().toInt(), node.getParent().getAddress().toInt());
+    }
+
+    /**
+     * Building the union find structure of the subnets from scratch, which drops every unused slot
+     */
+    private void rebuildComponents() {
+        components.clear();
+        // the slots start over, so the keys of the cached subnets mean something else now
+        lcaIndexes.clear();
+        treeMetrics.clear();
+        for (Node subnet : this.subnets) {
+            for (Node node : Graph.getNodes(Graph.getSubnetRoot(subnet))) {
+                components.add(node.getAddress().toInt());
+                if (node.getParent() != null)
+                    components.union(node.getAddress().toInt(), node.getParent().getAddress().toInt());
+            }
+        }
+    }
+
+    /**
+     * Removing a node from the set of all nodes and the address index
+     *
+     * @param node node which isn't part of the network anymore
+     */
+    private void unregister(Node node) {
+        allNodes.remove(node);
+        index.remove(node.getAddress());
+        components.remove(node.getAddress().toInt());
+        emit(NetworkEvent.Type.HOST_REMOVED, node.getAddress(), null);
+    }
+
     /**
      * getting the list of subnets from a network
      *
@@ -421,25 +963,38 @@ public List<Node> getSubnets() {
     }
 
 
+    /**
+     * Two networks are equal if their subnets have the same shapes, addresses don't matter
+     *
+     * @param o other network
+     * @return true if both networks are isomorphic
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Network net = (Network) o;
-        if (this.allNodes.size() != net.allNodes.size() || this.subnets.size() != net.subnets.size()) return false;
-
-        // List which contains the amount of connections each node has
-        List<List<Integer>> listOfDegrees
-            = this.subnets.stream().map(x -> Graph.getAsList(x).stream().map(Node::getDegree).sorted().collect(
-            Collectors.toList())).collect(Collectors.toList());
-
-        // List which contains the amount of connections each node has
-        List<List<Integer>> listOfDegreesSecondNet
-            = net.subnets.stream().map(x -> Graph.getAsList(x).stream().map(Node::getDegree).sorted().collect(
-            Collectors.toList())).collect(Collectors.toList());
+        if (this.allNodes.size() != net.allNodes.size()) return false;
+        long[] own = getSignatures();
+        if (!Arrays.equals(own, net.getSignatures())) return false;
+
+        // equal signatures could still be a collision, so the exact canonical forms get compared as well
+        CanonicalForm form = new CanonicalForm();
+        int[] ownLabels = labels(this, form);
+        int[] otherLabels = labels(net, form);
+        return Arrays.equals(ownLabels, otherLabels);
+    }
 
-        listOfDegrees.retainAll(listOfDegreesSecondNet);
+    private static int[] labels(Network network, CanonicalForm form) {
+        List<Node> roots = network.getSubnetRoots();
+        int[] labels = new int[roots.size()];
+        for (int i = 0; i < labels.length; i++) labels[i] = form.label(roots.get(i));
+        Arrays.sort(labels);
+        return labels;
+    }
 
-        return listOfDegrees.size() == listOfDegreesSecondNet.size();
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(getSignatures());
     }
 }
@@ -0,0 +1,102 @@
+package edu.kit.informatik.network;
+
+/**
+ * Single change of a network. Events are numbered in the order they happened, so a consumer which applies them in
+ * that order ends up with the same topology.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public final class NetworkEvent {
+
+    /**
+     * Kinds of changes
+     */
+    public enum Type {
+        /**
+         * a host became part of the network, its connection follows as a separate event
+         */
+        HOST_ADDED,
+        /**
+         * a host lost its last connection and is no longer part of the network
+         */
+        HOST_REMOVED,
+        /**
+         * two hosts got connected
+         */
+        CONNECTION_ADDED,
+        /**
+         * the connection between two hosts got removed
+         */
+        CONNECTION_REMOVED,
+        /**
+         * the connection between the two hosts joined their subnets
+         */
+        SUBNETS_MERGED,
+        /**
+         * the removed connection between the two hosts split their subnet, both hosts are now in different subnets
+         */
+        SUBNET_SPLIT
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final IP first;
+    private final IP second;
+
+    /**
+     * Creates a new event
+     *
+     * @param sequence number of the event, every network counts its events from 0
+     * @param type     kind of change
+     * @param first    host of a host event or first host of a connection
+     * @param second   second host of a connection, null for host events
+     */
+    NetworkEvent(final long sequence, final Type type, final IP first, final IP second) {
+        this.sequence = sequence;
+        this.type = type;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Getting the number of the event
+     *
+     * @return sequence number, the events of a network are numbered without gaps
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Getting the kind of change
+     *
+     * @return type of the event
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Getting the host of a host event or the first host of a connection
+     *
+     * @return IP-Address
+     */
+    public IP getFirst() {
+        return first;
+    }
+
+    /**
+     * Getting the second host of a connection
+     *
+     * @return IP-Address or null for host events
+     */
+    public IP getSecond() {
+        return second;
+    }
+
+    @Override
+    public String toString() {
+        return sequence + " " + type + " " + first + (second == null ? "" : " " + second);
+    }
+}
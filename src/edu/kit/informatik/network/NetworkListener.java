@@ -0,0 +1,20 @@
+package edu.kit.informatik.network;
+
+import java.util.List;
+
+/**
+ * Receiver of the changes of a network
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface NetworkListener {
+
+    /**
+     * Called once after every operation which changed the network, with all events of that operation
+     *
+     * @param events events in the order they happened, the list can't be changed
+     */
+    void changed(List<NetworkEvent> events);
+}
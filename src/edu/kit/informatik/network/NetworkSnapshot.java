@@ -0,0 +1,289 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.graph.IntIntMap;
+import edu.kit.informatik.graph.PersistentIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable version of a network. It stores the neighbours of every host in persistent maps, so a network can
+ * publish a new version after every change by copying only the paths to the changed hosts, and readers of an older
+ * version are never affected. Every method can be called from any thread without locking.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public final class NetworkSnapshot {
+    private static final NetworkSnapshot EMPTY = new NetworkSnapshot(PersistentIntMap.empty());
+
+    private final PersistentIntMap<PersistentIntMap<IP>> adjacency;
+
+    private NetworkSnapshot(PersistentIntMap<PersistentIntMap<IP>> adjacency) {
+        this.adjacency = adjacency;
+    }
+
+    /**
+     * Getting the snapshot without any hosts
+     *
+     * @return empty snapshot
+     */
+    static NetworkSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Adding a connection, both hosts get added if they are new
+     *
+     * @param first  first host
+     * @param second second host
+     * @return new version with the connection
+     */
+    NetworkSnapshot link(IP first, IP second) {
+        PersistentIntMap<PersistentIntMap<IP>> changed = adjacency;
+        changed = changed.put(first.toInt(), neighbours(first.toInt()).put(second.toInt(), second));
+        changed = changed.put(second.toInt(), neighbours(second.toInt()).put(first.toInt(), first));
+        return new NetworkSnapshot(changed);
+    }
+
+    /**
+     * Removing a connection, hosts without connections are removed as well
+     *
+     * @param first  first host
+     * @param second second host
+     * @return new version without the connection
+     */
+    NetworkSnapshot unlink(IP first, IP second) {
+        PersistentIntMap<PersistentIntMap<IP>> changed = adjacency;
+        changed = without(changed, first.toInt(), second.toInt());
+        changed = without(changed, second.toInt(), first.toInt());
+        return new NetworkSnapshot(changed);
+    }
+
+    private PersistentIntMap<PersistentIntMap<IP>> without(PersistentIntMap<PersistentIntMap<IP>> map, int host,
+                                                           int neighbour) {
+        PersistentIntMap<IP> remaining = neighbours(host).remove(neighbour);
+        return remaining.size() == 0 ? map.remove(host) : map.put(host, remaining);
+    }
+
+    private PersistentIntMap<IP> neighbours(int host) {
+        PersistentIntMap<IP> neighbours = adjacency.get(host);
+        return neighbours == null ? PersistentIntMap.empty() : neighbours;
+    }
+
+    /**
+     * Getting the neighbours of a host in ascending order
+     *
+     * @param host IP-Address as int
+     * @return addresses of the neighbours
+     */
+    private int[] sortedNeighbours(int host) {
+        return CompactNetwork.sortUnsigned(neighbours(host).keys());
+    }
+
+    /**
+     * Getting the number of hosts
+     *
+     * @return number of hosts
+     */
+    public int size() {
+        return adjacency.size();
+    }
+
+    /**
+     * returns a list of all IP-Addresses
+     *
+     * @return list of all IP addresses in ascending order
+     */
+    public List<IP> list() {
+        int[] hosts = CompactNetwork.sortUnsigned(adjacency.keys());
+        List<IP> allAddresses = new ArrayList<>(hosts.length);
+        for (int host : hosts) {
+            allAddresses.add(IP.of(host));
+        }
+        return allAddresses;
+    }
+
+    /**
+     * checks if a specific IP is part of the network
+     *
+     * @param ip IP-Address you want to check
+     * @return true of false
+     */
+    public boolean contains(final IP ip) {
+        return ip != null && adjacency.get(ip.toInt()) != null;
+    }
+
+    /**
+     * Searching for the maximum depth of the tree when it would be rooted at a host, the layers are only counted
+     * and never sorted
+     *
+     * @param root root ip for the network/starting point
+     * @return returning the height/depth of the tree
+     */
+    public int getHeight(final IP root) {
+        if (!contains(root)) return 0;
+        Levels levels = new Levels(root.toInt());
+        int height = -1;
+        while (levels.hasNext()) {
+            levels.expand();
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * Storing all hosts from the same layer into a list
+     *
+     * @param root root of the network
+     * @return list of lists where every list contains every address of each layer in ascending order
+     */
+    public List<List<IP>> getLevels(final IP root) {
+        List<List<IP>> layers = new ArrayList<>();
+        if (!contains(root)) return layers;
+        for (Levels levels = new Levels(root.toInt()); levels.hasNext();) {
+            layers.add(levels.next());
+        }
+        return layers;
+    }
+
+    /**
+     * Breadth first search over the undirected tree which stops after every layer. In a tree the only already
+     * visited neighbour of a host is the one it was reached from, so no visited set is needed. All layers share one
+     * queue and a layer is only sorted when it gets returned.
+     */
+    private final class Levels {
+        private final int[] queue = new int[size()];
+        /**
+         * host every queued host was reached from
+         */
+        private final int[] from = new int[size()];
+        private int layerStart;
+        private int count = 1;
+
+        private Levels(int start) {
+            queue[0] = start;
+            from[0] = start;
+        }
+
+        private boolean hasNext() {
+            return layerStart < count;
+        }
+
+        private List<IP> next() {
+            int start = layerStart;
+            int end = expand();
+            List<IP> addressesOfLayer = new ArrayList<>(end - start);
+            for (int host : CompactNetwork.sortUnsigned(Arrays.copyOfRange(queue, start, end))) {
+                addressesOfLayer.add(IP.of(host));
+            }
+            return addressesOfLayer;
+        }
+
+        /**
+         * Queueing the neighbours of the current layer
+         *
+         * @return end of the current layer in the queue
+         */
+        private int expand() {
+            int layerEnd = count;
+            for (int i = layerStart; i < layerEnd; i++) {
+                for (int neighbour : neighbours(queue[i]).keys()) {
+                    if (neighbour == from[i]) continue;
+                    from[count] = queue[i];
+                    queue[count++] = neighbour;
+                }
+            }
+            layerStart = layerEnd;
+            return layerEnd;
+        }
+    }
+
+    /**
+     * Getting a rout from one ip to another
+     *
+     * @param start starting point
+     * @param end   destination
+     * @return list of IPs which represents the rout between two IPs, empty if there is none
+     */
+    public List<IP> getRoute(final IP start, final IP end) {
+        List<IP> path = new ArrayList<>();
+        if (!contains(start) || !contains(end)) return path;
+        // search from the destination, so following the parents leads from start to end
+        List<Integer> queue = new ArrayList<>();
+        List<Integer> parents = new ArrayList<>();
+        IntIntMap positions = new IntIntMap();
+        queue.add(end.toInt());
+        parents.add(-1);
+        positions.put(end.toInt(), 0);
+        for (int head = 0; head < queue.size() && positions.get(start.toInt()) == IntIntMap.MISSING; head++) {
+            for (int neighbour : neighbours(queue.get(head)).keys()) {
+                if (positions.get(neighbour) != IntIntMap.MISSING) continue;
+                positions.put(neighbour, queue.size());
+                queue.add(neighbour);
+                parents.add(head);
+            }
+        }
+        int position = positions.get(start.toInt());
+        if (position == IntIntMap.MISSING) return path;
+        for (; position != -1; position = parents.get(position)) {
+            path.add(IP.of(queue.get(position)));
+        }
+        return path;
+    }
+
+    /**
+     * Getting the length of the rout from one ip to another
+     *
+     * @param start starting point
+     * @param end   destination
+     * @return number of connections between both IPs or -1 if there is no rout
+     */
+    public int getDistance(final IP start, final IP end) {
+        return getRoute(start, end).size() - 1;
+    }
+
+    /**
+     * converts a subnet to bracket notation
+     *
+     * @param root root of the graph
+     * @return tree in bracket notation
+     */
+    public String toString(IP root) {
+        if (!contains(root)) return "";
+        StringBuilder bracketNotation = new StringBuilder();
+        // every frame is a host with its neighbours except the one it was reached from
+        List<int[]> frames = new ArrayList<>();
+        List<Integer> hosts = new ArrayList<>();
+        int[] next = new int[size()];
+        open(bracketNotation, frames, hosts, root.toInt(), 0);
+        while (!frames.isEmpty()) {
+            int top = frames.size() - 1;
+            int[] children = frames.get(top);
+            if (next[top] == children.length) {
+                if (children.length > 0) bracketNotation.append(')');
+                frames.remove(top);
+                hosts.remove(top);
+                continue;
+            }
+            bracketNotation.append(' ');
+            next[top + 1] = 0;
+            open(bracketNotation, frames, hosts, children[next[top]++], hosts.get(top));
+        }
+        return bracketNotation.toString();
+    }
+
+    private void open(StringBuilder out, List<int[]> frames, List<Integer> hosts, int host, int from) {
+        int[] neighbours = sortedNeighbours(host);
+        int[] children = new int[neighbours.length];
+        int count = 0;
+        for (int neighbour : neighbours) {
+            if (frames.isEmpty() || neighbour != from) children[count++] = neighbour;
+        }
+        if (count > 0) out.append('(');
+        IP.of(host).appendTo(out);
+        frames.add(count == children.length ? children : Arrays.copyOf(children, count));
+        hosts.add(host);
+    }
+}
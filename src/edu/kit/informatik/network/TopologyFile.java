@@ -0,0 +1,193 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary file format of a compact network. The file stores the layout of {@link CompactNetwork} as it is, so a
+ * loaded file is mapped into memory and used without parsing or copying anything. A plain load only checks the
+ * header and the sizes, so it touches no page of the arrays and is meant for files this program wrote. Verifying
+ * reads the whole file: besides the CRC32 it checks that the addresses are ascending and that every parent, child
+ * and child offset points into its array and fits the depths, so the parents can't form a circle.
+ * <p>
+ * Layout, every value is a little endian int:
+ * <pre>
+ * header    magic, version, number of hosts n, number of connections c, CRC32 of everything after the header
+ * addresses n addresses in ascending unsigned order
+ * parents   n indices of the parent of every host, -1 for subnet roots
+ * depths    n distances to the root of the subnet
+ * offsets   n + 1 start of the children of every host
+ * children  c indices of children, sorted per host
+ * </pre>
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public final class TopologyFile {
+    private static final String CORRUPTED = "Error: corrupted topology file";
+    private static final int MAGIC = 0x4E455442;
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 5;
+    private static final int CHECKSUM_POSITION = 4;
+
+    private TopologyFile() {
+    }
+
+    /**
+     * Writing a network into a file, an existing file gets replaced
+     *
+     * @param network network to write
+     * @param file    path of the file
+     * @throws IOException if writing fails
+     */
+    public static void write(final CompactNetwork network, final Path file) throws IOException {
+        int size = network.size();
+        int connections = 0;
+        for (int host = 0; host < size; host++) {
+            connections += network.childCount(host);
+        }
+        long bytes = (long) Integer.BYTES * (HEADER_INTS + 4L * size + 1 + connections);
+        if (bytes > Integer.MAX_VALUE) throw new IOException("network is too big for a topology file");
+        ByteBuffer buffer = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.put(MAGIC).put(VERSION).put(size).put(connections).put(0);
+        for (int host = 0; host < size; host++) ints.put(network.address(host));
+        for (int host = 0; host < size; host++) ints.put(network.parent(host));
+        for (int host = 0; host < size; host++) ints.put(network.depth(host));
+        int offset = 0;
+        for (int host = 0; host < size; host++) {
+            ints.put(offset);
+            offset += network.childCount(host);
+        }
+        ints.put(offset);
+        for (int host = 0; host < size; host++) {
+            for (int child = 0; child < network.childCount(host); child++) ints.put(network.child(host, child));
+        }
+        buffer.putInt(CHECKSUM_POSITION * Integer.BYTES, checksum(buffer));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    /**
+     * Writing a network into a file, an existing file gets replaced
+     *
+     * @param network network to write
+     * @param file    path of the file
+     * @throws IOException if writing fails
+     */
+    public static void write(final Network network, final Path file) throws IOException {
+        write(new CompactNetwork(network), file);
+    }
+
+    /**
+     * Mapping a file into memory without verifying it, the returned network reads straight from the mapping
+     *
+     * @param file path of the file
+     * @return read only network backed by the file
+     * @throws IOException    if reading fails
+     * @throws ParseException if the file isn't a valid topology file
+     */
+    public static CompactNetwork load(final Path file) throws IOException, ParseException {
+        return load(file, false);
+    }
+
+    /**
+     * Mapping a file into memory, the returned network reads straight from the mapping
+     *
+     * @param file   path of the file
+     * @param verify true to check the CRC32 and the contents of the whole file, which reads every page
+     * @return read only network backed by the file
+     * @throws IOException    if reading fails
+     * @throws ParseException if the file isn't a valid topology file
+     */
+    public static CompactNetwork load(final Path file, final boolean verify) throws IOException, ParseException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE || channel.size() < HEADER_INTS * Integer.BYTES)
+                throw new ParseException(CORRUPTED);
+            // the mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer ints = buffer.asIntBuffer();
+        int size = ints.get(2);
+        int connections = ints.get(3);
+        if (ints.get(0) != MAGIC || ints.get(1) != VERSION || size < 0 || connections < 0
+            || (long) Integer.BYTES * (HEADER_INTS + 4L * size + 1 + connections) != buffer.capacity())
+            throw new ParseException(CORRUPTED);
+
+        int start = HEADER_INTS;
+        IntBuffer addresses = slice(ints, start, size);
+        IntBuffer parents = slice(ints, start += size, size);
+        IntBuffer depths = slice(ints, start += size, size);
+        IntBuffer childOffsets = slice(ints, start += size, size + 1);
+        IntBuffer children = slice(ints, start + size + 1, connections);
+        if (verify) {
+            if (ints.get(CHECKSUM_POSITION) != checksum(buffer)) throw new ParseException(CORRUPTED);
+            checkContents(addresses, parents, depths, childOffsets, children);
+        }
+        return new CompactNetwork(addresses, parents, childOffsets, children, depths);
+    }
+
+    /**
+     * Checking that the addresses are ascending and the arrays describe a forest. A parent has to be one step less
+     * deep than its child, so following the parents always ends at a root, and the children of every host have to
+     * be exactly the hosts which name it as their parent.
+     */
+    private static void checkContents(IntBuffer addresses, IntBuffer parents, IntBuffer depths,
+                                      IntBuffer childOffsets, IntBuffer children) throws ParseException {
+        int size = parents.limit();
+        int connections = children.limit();
+        int nonRoots = 0;
+        for (int host = 0; host < size; host++) {
+            if (host > 0 && Integer.compareUnsigned(addresses.get(host - 1), addresses.get(host)) >= 0)
+                throw new ParseException(CORRUPTED);
+            int parent = parents.get(host);
+            if (parent < -1 || parent >= size) throw new ParseException(CORRUPTED);
+            int depth = parent == -1 ? 0 : depths.get(parent) + 1;
+            if (depths.get(host) != depth) throw new ParseException(CORRUPTED);
+            if (parent != -1) nonRoots++;
+        }
+        if (childOffsets.get(0) != 0 || childOffsets.get(size) != connections || connections != nonRoots)
+            throw new ParseException(CORRUPTED);
+        for (int host = 0; host < size; host++) {
+            if (childOffsets.get(host) > childOffsets.get(host + 1)) throw new ParseException(CORRUPTED);
+        }
+        for (int host = 0; host < size; host++) {
+            int end = childOffsets.get(host + 1);
+            for (int position = childOffsets.get(host); position < end; position++) {
+                int child = children.get(position);
+                // ascending children can't repeat, so together with the count every non root is listed once
+                if (child < 0 || child >= size || parents.get(child) != host
+                    || position > childOffsets.get(host) && children.get(position - 1) >= child)
+                    throw new ParseException(CORRUPTED);
+            }
+        }
+    }
+
+    private static IntBuffer slice(IntBuffer ints, int start, int length) {
+        IntBuffer view = ints.duplicate();
+        view.position(start).limit(start + length);
+        return view.slice();
+    }
+
+    private static int checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(HEADER_INTS * Integer.BYTES);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
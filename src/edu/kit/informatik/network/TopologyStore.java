@@ -0,0 +1,347 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Crash safe storage of a network in a directory, made of a checkpoint and a journal. The store listens to the
+ * network and appends every added and removed connection to the journal, which is flushed to the disk after a
+ * group of changes. From time to time the whole network is written as a {@link TopologyFile} checkpoint and the
+ * journal starts over, so a restart only loads the checkpoint and replays the changes made since.
+ * <p>
+ * Journal records are numbered. A checkpoint is named after the number of the first record it doesn't contain and
+ * gets renamed into place only after it was written completely, so records which are already part of the
+ * checkpoint are skipped on recovery. Every group of records is written as one frame with its length and a CRC32,
+ * a torn frame at the end of the journal is cut off.
+ * <p>
+ * Frame layout, little endian:
+ * <pre>
+ * frame   payload length (int), CRC32 of the payload (int), payload
+ * payload number of the first record (long), record count (int), records
+ * record  kind (byte, 1 added, 0 removed), first address (int), second address (int)
+ * </pre>
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public class TopologyStore implements NetworkListener, Closeable {
+    /**
+     * number of changes after which the journal is flushed, if nothing else was given
+     */
+    public static final int DEFAULT_GROUP_SIZE = 64;
+    /**
+     * number of records after which a checkpoint is written, if nothing else was given
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1 << 20;
+
+    private static final String CORRUPTED = "Error: corrupted topology store";
+    private static final String FAILED = "Error: topology store failed to write a change";
+    private static final String JOURNAL = "journal.bin";
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".bin";
+    private static final String TEMPORARY = "checkpoint.tmp";
+    private static final int FRAME_HEADER = 2 * Integer.BYTES;
+    private static final int PAYLOAD_HEADER = Long.BYTES + Integer.BYTES;
+    private static final int RECORD = 1 + 2 * Integer.BYTES;
+    private static final byte ADDED = 1;
+    private static final byte REMOVED = 0;
+
+    private final Path directory;
+    private final int groupSize;
+    private final int checkpointInterval;
+    private final FileChannel journal;
+    private Network network;
+    /**
+     * number of the next record
+     */
+    private long next;
+    /**
+     * number of the first record which isn't part of the checkpoint
+     */
+    private long checkpointed;
+    private int unsynced;
+    /**
+     * first error of writing a change, the network already changed when it happened, so it is reported by the next
+     * call which can throw
+     */
+    private IOException failure;
+
+    /**
+     * Opens a store with the default group size and checkpoint interval
+     *
+     * @param directory directory of the store, it gets created if it doesn't exist
+     * @throws IOException if the directory or the journal can't be opened
+     */
+    public TopologyStore(final Path directory) throws IOException {
+        this(directory, DEFAULT_GROUP_SIZE, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Opens a store
+     *
+     * @param directory          directory of the store, it gets created if it doesn't exist
+     * @param groupSize          number of changes after which the journal is flushed to the disk
+     * @param checkpointInterval number of records after which a new checkpoint is written
+     * @throws IOException if the directory or the journal can't be opened
+     */
+    public TopologyStore(final Path directory, final int groupSize, final int checkpointInterval) throws IOException {
+        if (groupSize < 1 || checkpointInterval < 1) throw new IllegalArgumentException("sizes have to be positive");
+        this.directory = directory;
+        this.groupSize = groupSize;
+        this.checkpointInterval = checkpointInterval;
+        Files.createDirectories(directory);
+        this.journal = FileChannel.open(directory.resolve(JOURNAL), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Loading the latest checkpoint and replaying the journal. The store listens to the recovered network
+     * afterwards.
+     *
+     * @return recovered network or null if nothing was stored yet
+     * @throws IOException    if the files can't be read
+     * @throws ParseException if the checkpoint is corrupted
+     */
+    public Network recover() throws IOException, ParseException {
+        Path checkpoint = latestCheckpoint();
+        CompactNetwork loaded = null;
+        if (checkpoint != null) {
+            checkpointed = sequenceOf(checkpoint);
+            // a restart is rare, so the checkpoint is read completely to find a damaged file early
+            loaded = TopologyFile.load(checkpoint, true);
+        }
+        next = checkpointed;
+        Network recovered = replay(loaded);
+        if (recovered != null) track(recovered, false);
+        return recovered;
+    }
+
+    /**
+     * Starting to store a network which wasn't recovered from this store, a checkpoint of it is written at once
+     *
+     * @param tracked network to store
+     * @throws IOException if the checkpoint can't be written
+     */
+    public void track(final Network tracked) throws IOException {
+        track(tracked, true);
+    }
+
+    private void track(Network tracked, boolean write) throws IOException {
+        if (network != null) network.removeListener(this);
+        network = tracked;
+        if (write) checkpoint();
+        network.addListener(this);
+    }
+
+    /**
+     * Appending the connections of a change to the journal. An error can't be thrown to the network, which has
+     * already changed; it marks the store as failed instead and nothing is written from then on, so the journal never
+     * has a gap.
+     *
+     * @param events events of one change of the network
+     */
+    @Override
+    public void changed(final List<NetworkEvent> events) {
+        if (failure != null) return;
+        int count = 0;
+        for (NetworkEvent event : events) {
+            if (isConnection(event)) count++;
+        }
+        if (count == 0) return;
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + PAYLOAD_HEADER + count * RECORD)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        frame.position(FRAME_HEADER);
+        frame.putLong(next).putInt(count);
+        for (NetworkEvent event : events) {
+            if (!isConnection(event)) continue;
+            frame.put(event.getType() == NetworkEvent.Type.CONNECTION_ADDED ? ADDED : REMOVED);
+            frame.putInt(event.getFirst().toInt()).putInt(event.getSecond().toInt());
+        }
+        frame.putInt(0, frame.capacity() - FRAME_HEADER);
+        frame.putInt(Integer.BYTES, checksum(frame, FRAME_HEADER, frame.capacity() - FRAME_HEADER));
+        frame.flip();
+        try {
+            while (frame.hasRemaining()) journal.write(frame);
+            next += count;
+            if (++unsynced >= groupSize) sync();
+            if (next - checkpointed >= checkpointInterval) checkpoint();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Flushing every change to the disk
+     *
+     * @throws IOException if the journal can't be flushed or writing a change failed before
+     */
+    public void sync() throws IOException {
+        checkFailure();
+        journal.force(false);
+        unsynced = 0;
+    }
+
+    /**
+     * Writing the whole network as new checkpoint and starting an empty journal
+     *
+     * @throws IOException if the checkpoint can't be written or writing a change failed before
+     */
+    public void checkpoint() throws IOException {
+        checkFailure();
+        if (network == null) return;
+        Path temporary = directory.resolve(TEMPORARY);
+        TopologyFile.write(network, temporary);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Path target = directory.resolve(CHECKPOINT_PREFIX + next + CHECKPOINT_SUFFIX);
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        // the journal only holds records which are part of the new checkpoint now
+        checkpointed = next;
+        journal.truncate(0);
+        journal.force(true);
+        unsynced = 0;
+        deleteCheckpointsBefore(target);
+    }
+
+    /**
+     * Closing the journal
+     *
+     * @throws IOException if the journal can't be flushed or writing a change failed before
+     */
+    @Override
+    public void close() throws IOException {
+        if (network != null) network.removeListener(this);
+        try {
+            sync();
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * Applying every complete frame of the journal, a torn or corrupted frame and everything after it is cut off.
+     * The records are replayed on a {@link DynamicNetwork}, a journal of connections going down and up in a deep
+     * subnet would cost a re-rooting of the node trees for every record otherwise.
+     */
+    private Network replay(CompactNetwork start) throws IOException {
+        DynamicNetwork replayed = null;
+        long size = journal.size();
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        long position = 0;
+        while (position + FRAME_HEADER <= size) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            if (length < PAYLOAD_HEADER || position + FRAME_HEADER + length > size) break;
+            ByteBuffer payload = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(payload, position + FRAME_HEADER);
+            if (checksum(payload, 0, length) != header.getInt(Integer.BYTES)) break;
+            long first = payload.getLong(0);
+            int count = payload.getInt(Long.BYTES);
+            if (length != PAYLOAD_HEADER + count * RECORD) break;
+            for (int record = 0; record < count; record++) {
+                int offset = PAYLOAD_HEADER + record * RECORD;
+                // records which are already part of the checkpoint are skipped
+                if (first + record < checkpointed) continue;
+                if (replayed == null) replayed = start == null ? new DynamicNetwork() : new DynamicNetwork(start);
+                int firstHost = payload.getInt(offset + 1);
+                int secondHost = payload.getInt(offset + 1 + Integer.BYTES);
+                // every record was applied to the live network, so removals aren't refused like disconnect does
+                if (payload.get(offset) == ADDED) {
+                    replayed.link(firstHost, secondHost);
+                } else {
+                    replayed.unlink(firstHost, secondHost);
+                }
+            }
+            next = Math.max(next, first + count);
+            position += FRAME_HEADER + length;
+        }
+        if (position < size) journal.truncate(position);
+        journal.position(position);
+        if (replayed == null) return start == null ? null : start.toNetwork();
+        return replayed.size() == 0 ? null : replayed.toNetwork();
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) throw new IOException(FAILED, failure);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = journal.read(buffer, current);
+            if (read < 0) throw new IOException(CORRUPTED);
+            current += read;
+        }
+        buffer.flip();
+    }
+
+    private static boolean isConnection(NetworkEvent event) {
+        return event.getType() == NetworkEvent.Type.CONNECTION_ADDED
+            || event.getType() == NetworkEvent.Type.CONNECTION_REMOVED;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer range = buffer.duplicate();
+        range.limit(offset + length).position(offset);
+        crc.update(range);
+        return (int) crc.getValue();
+    }
+
+    private Path latestCheckpoint() throws IOException {
+        Path latest = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, CHECKPOINT_PREFIX + "*")) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().endsWith(CHECKPOINT_SUFFIX)) continue;
+                if (latest == null || sequenceOf(file) > sequenceOf(latest)) latest = file;
+            }
+        }
+        return latest;
+    }
+
+    private void deleteCheckpointsBefore(Path current) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, CHECKPOINT_PREFIX + "*")) {
+            for (Path file : files) {
+                if (!file.equals(current) && file.getFileName().toString().endsWith(CHECKPOINT_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static long sequenceOf(Path checkpoint) throws IOException {
+        String name = checkpoint.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(CHECKPOINT_PREFIX.length(),
+                name.length() - CHECKPOINT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException(CORRUPTED);
+        }
+    }
+
+    /**
+     * Flushing the rename of a checkpoint, not every file system supports this for directories
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // the rename itself is atomic, only its durability depends on the file system
+        }
+    }
+}
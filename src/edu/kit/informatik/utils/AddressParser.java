@@ -5,12 +5,11 @@
 import edu.kit.informatik.exceptions.ParseException;
 import edu.kit.informatik.graph.Node;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.List;
-import java.util.Dictionary;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 /**
  * Util class for all Parser operations
@@ -20,110 +19,133 @@
  */
 public final class AddressParser {
 
-    private static final String VALID_CHARACTERS = "^\\(([0-9.()]{7,15} ?)*\\)$";
-    private static final String CHILDREN_WITHOUT_CHILDREN = "\\([0-9.\\[\\]\\s]*\\)";
-    private static final int MINIMUM_IP_LENGHT = 6;
+    private static final String INVALID_NOTATION = "Invalid bracket notation";
+    private static final String INVALID_ADDRESS = "Error: not a valid IP address";
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_ADDRESS_LENGTH = 15;
+    private static final int END = -1;
 
     private AddressParser() {
 
     }
 
     /**
-     * Converts bracket notation to list of sublist and IP-Addresses
+     * Methode to parse a String to a network
      *
-     * @param children Dictionary with placeholder and their IP String Arrays
-     * @param child    placeholder ID
-     * @return List of IP-Addresses as string and sublist
-     * @throws ParseException s
+     * @param bracketNotation network in bracket notation
+     * @return root node of the parsed tree
+     * @throws ParseException if something is wrong in the bracket notation
      */
-    public static List<Object> bracketParserIps(Dictionary<Integer, String[]> children, int child)
-        throws ParseException {
-        String[] tempChildList = children.get(child);
-        if (tempChildList.length < 2) throw new ParseException("invalid bracket notation");
-        List<Object> childList = new ArrayList<>();
-
-        for (String tempChild : tempChildList) {
-            if (tempChild.startsWith("[") && tempChild.endsWith("]")) {
-                childList.add(
-                    bracketParserIps(children, Integer.parseInt(tempChild.substring(1, tempChild.length() - 1))));
-            } else {
-                childList.add(tempChild);
-            }
+    public static Node bracketParser(CharSequence bracketNotation) throws ParseException {
+        try {
+            return new Tokenizer(bracketNotation, null).parse();
+        } catch (IOException e) {
+            // a char sequence is read without any I/O
+            throw new UncheckedIOException(e);
         }
-
-        return childList;
     }
 
     /**
-     * Converts list to a Node-tree
+     * Methode to parse a network while it is read from a stream
      *
-     * @param ipStringTree List of IP-Addresses as string and sublist
-     * @return Node with its children
-     * @throws ParseException throws exception when parsing fails
+     * @param bracketNotation reader which delivers the network in bracket notation
+     * @return root node of the parsed tree
+     * @throws ParseException if something is wrong in the bracket notation
+     * @throws IOException    if reading fails
      */
-    public static Node ipsCreateTree(List<Object> ipStringTree) throws ParseException {
-        List<Object> childrenString = ipStringTree.subList(1, ipStringTree.size());
-        List<Node> children = new ArrayList<>();
-        for (Object o : childrenString) {
-            if (o.getClass().getSimpleName().equals("ArrayList")) {
-                //create subtree
-                children.add(ipsCreateTree((List<Object>) o));
-            } else {
-                //create parent
-                children.add(new Node(new IP((String) o), new ArrayList<>()));
-            }
-        }
-        return new Node(new IP((String) ipStringTree.get(0)), children);
+    public static Node bracketParser(Reader bracketNotation) throws ParseException, IOException {
+        return new Tokenizer(null, bracketNotation).parse();
     }
 
     /**
-     * Methode to parse a String to a network
-     *
-     * @param bracketNotation network in bracket notation
-     * @return List of node which
-     * @throws ParseException if something is wrong in the bracket notation
+     * Single pass parser which builds the tree while reading, every open bracket is a frame on an explicit stack
      */
-    public static Node bracketParser(String bracketNotation) throws ParseException {
-        String notation = bracketNotation;
-        if (!Pattern.compile(VALID_CHARACTERS).matcher(notation).find() || notation.startsWith("(("))
-            throw new ParseException("Invalid bracket notation");
-        if (!equalBracket(notation)) throw new ParseException("invalid bracket notation");
-
-        Pattern pattern = Pattern.compile(CHILDREN_WITHOUT_CHILDREN);
-        Dictionary<Integer, String[]> children = new Hashtable<>();
-        int placeholder = 0;
-        while (notation.length() > MINIMUM_IP_LENGHT) {
-            Matcher matcher = pattern.matcher(notation);
-            while (matcher.find()) {
-                //getting the deepest children which is defined by the first bracket which doesn't have any children
-                String childString = matcher.group();
-                String[] childList = childString.substring(1, childString.length() - 1).split(" ");
-                children.put(placeholder, childList);
-                //removing the deepest child with a placeholder
-                notation = notation.replace(childString, "[" + placeholder + "]");
-                ++placeholder;
-            }
+    private static final class Tokenizer {
+        private final CharSequence text;
+        private final Reader reader;
+        private final char[] buffer;
+        private int limit;
+        private int offset;
+        private int position;
+        private int current;
+
+        private final StringBuilder token = new StringBuilder(MAX_ADDRESS_LENGTH);
+        private final List<IP> heads = new ArrayList<>();
+        private final List<List<Node>> children = new ArrayList<>();
+
+        Tokenizer(CharSequence text, Reader reader) {
+            this.text = text;
+            this.reader = reader;
+            this.buffer = reader == null ? null : new char[BUFFER_SIZE];
         }
 
-        List<Object> ipTree = bracketParserIps(children, children.size() - 1);
+        private int read() throws IOException {
+            position++;
+            if (text != null) return position < text.length() ? text.charAt(position) : END;
+            if (offset == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                offset = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return END;
+                }
+            }
+            return buffer[offset++];
+        }
 
-        return ipsCreateTree(ipTree);
-    }
+        Node parse() throws ParseException, IOException {
+            position = -1;
+            current = read();
+            if (current != '(') throw new ParseException(INVALID_NOTATION, position);
+            Node root = null;
+            while (root == null) {
+                if (current == '(') {
+                    // a group always starts with the address of its parent
+                    current = read();
+                    heads.add(parseAddress());
+                    children.add(new ArrayList<>());
+                } else if (current == ' ') {
+                    current = read();
+                    if (current == '(') continue;
+                    // a single space is also allowed in front of a closing bracket
+                    if (current != ')') children.get(children.size() - 1).add(new Node(parseAddress(),
+                        new ArrayList<>()));
+                } else if (current == ')') {
+                    root = close();
+                    current = read();
+                } else {
+                    throw new ParseException(INVALID_NOTATION, position);
+                }
+            }
+            if (current != END) throw new ParseException(INVALID_NOTATION, position);
+            return root;
+        }
 
-    /**
-     * Check if there is and equal amount of opening and cling bracket
-     *
-     * @param string bracket notation
-     * @return boolean depending on if there is an equal amount of closing and opening brackets
-     */
-    public static boolean equalBracket(String string) {
-        String brackets = string.replaceAll("[0-9. ]", "");
-        int cnt = 0;
-        for (char character : brackets.toCharArray()) {
-            if (character == '(') cnt++;
-            if (character == ')') cnt--;
+        private Node close() throws ParseException {
+            int top = heads.size() - 1;
+            List<Node> nodeChildren = children.remove(top);
+            if (nodeChildren.isEmpty()) throw new ParseException(INVALID_NOTATION, position);
+            Node node = new Node(heads.remove(top), nodeChildren);
+            if (top == 0) return node;
+            children.get(top - 1).add(node);
+            return null;
+        }
 
+        private IP parseAddress() throws ParseException, IOException {
+            if (current < '0' || current > '9') throw new ParseException(INVALID_NOTATION, position);
+            int start = position;
+            // the token buffer gets reused for every address, so no strings are created
+            token.setLength(0);
+            for (; (current >= '0' && current <= '9') || current == '.'; current = read()) {
+                if (token.length() == MAX_ADDRESS_LENGTH) throw new ParseException(INVALID_ADDRESS, start);
+                token.append((char) current);
+            }
+            if (current != ' ' && current != ')') throw new ParseException(INVALID_NOTATION, position);
+            try {
+                return IP.parse(token, 0, token.length());
+            } catch (ParseException e) {
+                throw new ParseException(INVALID_ADDRESS, start);
+            }
         }
-        return cnt == 0;
     }
 }
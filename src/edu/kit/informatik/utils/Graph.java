@@ -1,12 +1,15 @@
 package edu.kit.informatik.utils;
 
 import edu.kit.informatik.network.IP;
-import edu.kit.informatik.network.Network;
+import edu.kit.informatik.graph.IntIntMap;
 import edu.kit.informatik.graph.Node;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
@@ -24,117 +27,242 @@ private Graph() {
     }
 
     /**
-     * finding connection point between two trees
+     * Getting list of all nodes which are in the subnet of root
      *
-     * @param rootLayers List of layers of the tree
-     * @param sub        root note of the list we want to merge
-     * @return IP if a merge-point was found
+     * @param root root node of the subnet
+     * @return list of all nodes this subnet contains
      */
-    public static IP findConnection(List<List<IP>> rootLayers, Node sub) {
-        List<IP> subIPs = getAsList(sub).stream().map(Node::getAddress).collect(Collectors.toList());
-        for (List<IP> layer : rootLayers) {
-            List<IP> tempSub = new ArrayList<>(List.copyOf(subIPs));
-            tempSub.retainAll(layer);
-            if (!tempSub.isEmpty()) {
-                return tempSub.get(0);
-            }
+    public static SortedSet<Node> getAsList(Node root) {
+        SortedSet<Node> list = new TreeSet<>();
+        list.add(root);
+        for (List<Node> cursor = new ArrayList<>(root.getChildren()); !cursor.isEmpty();) {
+            list.addAll(cursor);
+            cursor = cursor.stream().map(Node::getChildren).flatMap(List::stream).collect(Collectors.toList());
         }
-        return null;
+        return list;
     }
 
     /**
-     * Connecting the children of the connection points
+     * Getting every node of a subtree in breadth first order without sorting them
      *
-     * @param root       connecting point of the root tree
-     * @param sub        connecting point of the subtree
-     * @param subnetCopy copy of the network we want to merge
+     * @param root root node of the subtree
+     * @return list which starts with root followed by all of its descendants
      */
-    public static void connectChildrenNodes(Node root, Node sub, Network subnetCopy) {
-        // Add direct children to root
-        root.addChildren(
-            sub.getChildren().stream().filter(
-                x -> !root.getChildren().stream().map(Node::toString).collect(Collectors.toList())
-                    .contains(x.toString())).collect(Collectors.toList()));
-        // Generate List of same children between sub and root
-        List<Node> sameChildren
-            = root.getChildren().stream().filter(
-                x -> sub.getChildren().stream().map(Node::toString).collect(Collectors.toList()).contains(x.toString()))
-            .collect(Collectors.toList());
-
-        // Steps down same children until no same children exists
-        while (!sameChildren.isEmpty()) {
-            List<Node> tempSame = new ArrayList<>();
-            // for every same child adds children of this child that aren't the same
-            // and adds in tempSame the same children
-            for (Node child : sameChildren) {
-                Node tempSub = subnetCopy.getAsNode(child.getAddress(), -1);
-                child.addChildren(
-                    tempSub.getChildren().stream().filter(
-                        x -> !child.getChildren().stream().map(Node::toString).collect(Collectors.toList())
-                            .contains(x.toString())).collect(Collectors.toList()));
-                tempSame.addAll(child.getChildren().stream().filter(
-                        x -> tempSub.getChildren().stream().map(Node::toString).collect(Collectors.toList())
-                            .contains(x.toString()))
-                    .collect(Collectors.toList()));
-            }
-            sameChildren = tempSame;
+    public static List<Node> getNodes(Node root) {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(root);
+        for (int head = 0; head < nodes.size(); head++) {
+            nodes.addAll(nodes.get(head).getChildren());
         }
+        return nodes;
     }
 
-
     /**
-     * Getting list of all nodes which are in the subnet of root
+     * Merging a tree into another one which shares the address of its root. Children with an address the target
+     * already has are merged level by level, every other subtree of the source gets moved below the target.
+     * Children are matched through a hash set of their packed addresses, so the cost is linear in the number of
+     * merged nodes.
      *
-     * @param root root node of the subnet
-     * @return list of all nodes this subnet contains
+     * @param target connecting point of the root tree, it receives the new subtrees
+     * @param source connecting point of the subtree, moved subtrees are removed from it
+     * @return roots of all subtrees which were moved to the target tree
      */
-    public static SortedSet<Node> getAsList(Node root) {
-        SortedSet<Node> list = new TreeSet<>();
-        list.add(root);
-        for (List<Node> cursor = new ArrayList<>(root.getChildren()); !cursor.isEmpty();) {
-            list.addAll(cursor);
-            cursor = cursor.stream().map(Node::getChildren).flatMap(List::stream).collect(Collectors.toList());
+    public static List<Node> unionInto(Node target, Node source) {
+        List<Node> moved = new ArrayList<>();
+        List<Node[]> sameChildren = new ArrayList<>();
+        sameChildren.add(new Node[] {target, source});
+        while (!sameChildren.isEmpty()) {
+            Node[] pair = sameChildren.remove(sameChildren.size() - 1);
+            List<Node> targetChildren = pair[0].getChildren();
+            IntIntMap positions = new IntIntMap(targetChildren.size());
+            for (int i = 0; i < targetChildren.size(); i++) {
+                positions.put(targetChildren.get(i).getAddress().toInt(), i);
+            }
+            List<Node> newChildren = new ArrayList<>();
+            List<Node> remaining = new ArrayList<>();
+            for (Node child : pair[1].getChildren()) {
+                int same = positions.get(child.getAddress().toInt());
+                if (same == IntIntMap.MISSING) {
+                    newChildren.add(child);
+                } else {
+                    remaining.add(child);
+                    sameChildren.add(new Node[] {targetChildren.get(same), child});
+                }
+            }
+            if (newChildren.isEmpty()) continue;
+            pair[1].getChildren().clear();
+            pair[1].getChildren().addAll(remaining);
+            pair[1].childrenChanged();
+            pair[0].addChildren(newChildren);
+            moved.addAll(newChildren);
         }
-        return list;
+        return moved;
     }
 
     /**
-     * Helper methode for toString in network
+     * Writing a tree in bracket notation without recursion. The tree is treated as undirected, so any node can be
+     * used as root, and neighbours are sorted in a copy, so the tree stays untouched.
      *
      * @param root root IP but as Node
-     * @return full bracket notation as string
+     * @param out  target of the bracket notation
+     * @throws IOException if writing to the target fails
      */
-    public static StringBuilder buildBracketNotation(Node root) {
-        StringBuilder bracketNotation = new StringBuilder();
-        if (!root.getChildren().isEmpty()) {
-            Collections.sort(root.getChildren());
-            for (Node child : root.getChildren()) {
-                bracketNotation.append(buildBracketNotation(child));
+    public static void writeBracketNotation(Node root, Appendable out) throws IOException {
+        // every frame is a node with its sorted neighbours except the one it was reached from
+        List<Node> nodes = new ArrayList<>();
+        List<Node[]> children = new ArrayList<>();
+        List<Integer> next = new ArrayList<>();
+        open(root, null, nodes, children, next, out);
+        while (!nodes.isEmpty()) {
+            int top = nodes.size() - 1;
+            Node[] neighbours = children.get(top);
+            int position = next.get(top);
+            if (position == neighbours.length) {
+                if (neighbours.length > 0) out.append(')');
+                nodes.remove(top);
+                children.remove(top);
+                next.remove(top);
+                continue;
             }
-            bracketNotation.insert(0, " (" + root.getAddress().toString()).append(")");
-        } else {
-            bracketNotation.append(" ").append(root.getAddress().toString());
+            next.set(top, position + 1);
+            out.append(' ');
+            open(neighbours[position], nodes.get(top), nodes, children, next, out);
+        }
+    }
+
+    private static void open(Node node, Node from, List<Node> nodes, List<Node[]> children, List<Integer> next,
+                             Appendable out) throws IOException {
+        int count = node.getChildren().size();
+        Node[] neighbours = node.getChildren().toArray(new Node[count + 1]);
+        if (node.getParent() != null && node.getParent() != from) neighbours[count++] = node.getParent();
+        if (from != null && node.getParent() != from) {
+            // the node was reached from one of its children
+            for (int i = 0; i < count; i++) {
+                if (neighbours[i] == from) neighbours[i] = neighbours[--count];
+            }
+        }
+        neighbours = Arrays.copyOf(neighbours, count);
+        Arrays.sort(neighbours);
+        if (count > 0) out.append('(');
+        node.getAddress().writeTo(out);
+        nodes.add(node);
+        children.add(neighbours);
+        next.add(0);
+    }
+
+    /**
+     * Getting every node connected to a node regardless of the orientation of the tree
+     *
+     * @param node node in the tree
+     * @return new list with the children and the parent of the node
+     */
+    public static List<Node> getNeighbours(Node node) {
+        List<Node> neighbours = new ArrayList<>(node.getChildren());
+        if (node.getParent() != null) neighbours.add(node.getParent());
+        return neighbours;
+    }
+
+    /**
+     * Storing all nodes from the same layer into a list, using a breadth first search over the undirected tree
+     *
+     * @param start node the layers are counted from
+     * @return list of lists where every list contains every address of each layer in ascending order
+     */
+    public static List<List<IP>> getLevels(Node start) {
+        List<List<IP>> layers = new ArrayList<>();
+        for (Iterator<List<IP>> levels = levelIterator(start); levels.hasNext();) {
+            layers.add(levels.next());
         }
-        return bracketNotation;
+        return layers;
     }
 
     /**
-     * Adding new Nodes to a list of all Nodes
+     * Getting the layers of a tree one after another. The next layer is only searched when it is requested, so
+     * callers which stop early never visit the rest of the tree.
      *
-     * @param network new network or addresses that has been created
-     * @return returns list of all nodes which the network contains
+     * @param start node the layers are counted from
+     * @return iterator over the addresses of each layer in ascending order
      */
-    public static SortedSet<Node> updateAllNodes(List<Node> network) {
-        SortedSet<Node> nodes = new TreeSet<>();
-        for (Node root : network) {
-            if (!root.getChildren().isEmpty()) {
-                nodes.add(root);
-                nodes.addAll(updateAllNodes(root.getChildren()));
-            } else {
-                nodes.add(root);
+    public static Iterator<List<IP>> levelIterator(Node start) {
+        return new Levels(start);
+    }
+
+    /**
+     * Counting the layers of a tree below a node, a breadth first search which neither collects nor sorts the
+     * addresses of a layer
+     *
+     * @param start node the layers are counted from
+     * @return number of connections from start to the farthest node of its tree
+     */
+    public static int getHeight(Node start) {
+        Levels levels = new Levels(start);
+        int height = -1;
+        while (levels.hasNext()) {
+            levels.skip();
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * Breadth first search over the undirected tree which stops after every layer. In a tree the only already
+     * visited neighbour of a node is the one it was reached from, so no visited set is needed, and the buffers of
+     * the current and the next layer are swapped and reused.
+     */
+    private static final class Levels implements Iterator<List<IP>> {
+        private List<Node> layer = new ArrayList<>();
+        private List<Node> from = new ArrayList<>();
+        private List<Node> next = new ArrayList<>();
+        private List<Node> nextFrom = new ArrayList<>();
+
+        private Levels(Node start) {
+            layer.add(start);
+            from.add(null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !layer.isEmpty();
+        }
+
+        @Override
+        public List<IP> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            List<IP> addresses = new ArrayList<>(layer.size());
+            for (Node node : layer) {
+                addresses.add(node.getAddress());
             }
+            addresses.sort(null);
+            skip();
+            return addresses;
+        }
+
+        /**
+         * Moving on to the next layer without looking at the current one
+         */
+        private void skip() {
+            for (int i = 0; i < layer.size(); i++) {
+                Node node = layer.get(i);
+                for (Node neighbour : node.getChildren()) {
+                    if (neighbour != from.get(i)) {
+                        next.add(neighbour);
+                        nextFrom.add(node);
+                    }
+                }
+                if (node.getParent() != null && node.getParent() != from.get(i)) {
+                    next.add(node.getParent());
+                    nextFrom.add(node);
+                }
+            }
+            List<Node> swap = layer;
+            layer = next;
+            next = swap;
+            next.clear();
+            swap = from;
+            from = nextFrom;
+            nextFrom = swap;
+            nextFrom.clear();
         }
-        return nodes;
     }
 
     /**
@@ -144,12 +272,14 @@ public static SortedSet<Node> updateAllNodes(List<Node> network) {
      * @return root node of the subnet
      */
     public static Node getSubnetRoot(Node node) {
-        if (node.getParent() == null) return node;
-        return getSubnetRoot(node.getParent());
+        Node root = node;
+        while (root.getParent() != null) root = root.getParent();
+        return root;
     }
 
     /**
-     * Changes the root of a subnet
+     * Changes the root of a subnet. Only the nodes on the path from the new root to the old one change, they are
+     * turned around one after another without recursion, so the cost is linear in the depth of the node.
      *
      * @param currentNode node we want to change
      * @param newParent   new parent for current node
@@ -158,21 +288,24 @@ public static Node getSubnetRoot(Node node) {
      */
     public static List<Node> changeToRoot(Node currentNode, Node newParent, List<Node> subnet) {
         List<Node> sub = new ArrayList<>(subnet);
-        Node nodeRoot = getSubnetRoot(currentNode);
         if (newParent == null) {
-            sub.remove(nodeRoot);
+            sub.remove(getSubnetRoot(currentNode));
             sub.add(currentNode);
         }
-        if (currentNode.getParent() != null) {
-            sub = changeToRoot(currentNode.getParent(), currentNode, sub);
-            currentNode.getChildren().add(currentNode.getParent());
+        Node previous = newParent;
+        for (Node node = currentNode; node != null;) {
+            Node parent = node.getParent();
+            if (parent != null) node.getChildren().add(parent);
+            node.getChildren().remove(previous);
+            node.setParent(previous);
+            // the new parent was marked one step before, so only this node itself gets marked
+            node.childrenChanged();
+            previous = node;
+            node = parent;
         }
-        currentNode.getChildren().remove(newParent);
-        currentNode.setParent(newParent);
         return sub;
     }
 
-
     /**
      * Methode that converts a list of IP's to a list of Node's
      *
@@ -186,28 +319,4 @@ public static List<Node> convertToNode(List<IP> children) {
         }
         return list;
     }
-
-
-    /**
-     * Checking for duplicate networks which the mainNetwork already contains
-     *
-     * @param mainNets List of subnets from main network
-     * @param subNets  List of subnets from subnetwork
-     * @return List of non-duplicate root nodes
-     */
-    public static List<Node> removeForDuplicates(List<Node> mainNets, List<Node> subNets) {
-        List<Node> noneDuplicates = new ArrayList<>();
-        for (Node subRoot : subNets) {
-            boolean duplicate = false;
-            for (Node mainRoot : mainNets) {
-                if (mainRoot.equals(subRoot)) {
-                    duplicate = true;
-                    break;
-                }
-            }
-            if (!duplicate) noneDuplicates.add(subRoot);
-        }
-
-        return noneDuplicates;
-    }
 }
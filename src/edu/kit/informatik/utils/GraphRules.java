@@ -2,12 +2,12 @@
 
 
 import edu.kit.informatik.network.IP;
+import edu.kit.informatik.graph.IntIntMap;
 import edu.kit.informatik.graph.Node;
+import edu.kit.informatik.graph.NodeIndex;
 
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Checking if a graph is correctly implemented
@@ -29,16 +29,16 @@ private GraphRules() {
      */
 
     public static boolean betterIsCircular(Node root) {
-        Set<Node> allNodes = new TreeSet<>();
-        Queue<Node> queue = new LinkedList<>();
+        // addresses are compared like the nodes themselves, a hash map of them is enough to find a repeated node
+        IntIntMap visited = new IntIntMap();
+        List<Node> queue = new ArrayList<>();
         queue.add(root);
-        while (!queue.isEmpty()) {
-            Node node = queue.poll();
-            if (allNodes.contains(node)) {
+        for (int head = 0; head < queue.size(); head++) {
+            Node node = queue.get(head);
+            if (visited.put(node.getAddress().toInt(), head) != IntIntMap.MISSING) {
                 return true;
             }
             queue.addAll(node.getChildren());
-            allNodes.add(node);
         }
         return false;
     }
@@ -46,15 +46,11 @@ public static boolean betterIsCircular(Node root) {
     /**
      * checking if an IP is existing
      *
-     * @param root     the Ip you want to check
-     * @param allNodes all nodes of the network
+     * @param root  the Ip you want to check
+     * @param index index of all nodes of the network
      * @return boolean, depending on if IP exists or not
      */
-    public static boolean checkIP(IP root, Set<Node> allNodes) {
-        return allNodes.stream().noneMatch(x -> x.getAddress().compareTo(root) == 0);
+    public static boolean checkIP(IP root, NodeIndex index) {
+        return !index.contains(root);
     }
-
-
-
-
 }
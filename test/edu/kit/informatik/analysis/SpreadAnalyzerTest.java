@@ -0,0 +1,125 @@
+package edu.kit.informatik.analysis;
+
+import edu.kit.informatik.network.CompactNetwork;
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.RandomForest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Randomized comparison of {@link SpreadAnalyzer} with a plain multi-source breadth first search
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+class SpreadAnalyzerTest {
+    private static final long SEED = 20211L;
+    /**
+     * bigger than the grain of the analyzer, so the parallel passes run as well
+     */
+    private static final int LARGE = 40000;
+    private static final int BLOCK_RATE = 20;
+    private static final int MAX_DELAY = 3;
+
+    @Test
+    void unitDelaysMatchBreadthFirstSearch() {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 300; round++) {
+            check(random, 2 + random.nextInt(60), false);
+        }
+        check(random, LARGE, false);
+        check(random, LARGE, false);
+    }
+
+    @Test
+    void delaysMatchShortestPaths() {
+        Random random = new Random(SEED + 1);
+        for (int round = 0; round < 300; round++) {
+            check(random, 2 + random.nextInt(60), true);
+        }
+        check(random, LARGE, true);
+    }
+
+    private static void check(Random random, int size, boolean delays) {
+        RandomForest forest = new RandomForest(random, size, 0.02, random.nextBoolean());
+        CompactNetwork network = forest.toCompactNetwork();
+        SpreadAnalyzer analyzer = new SpreadAnalyzer(network);
+        int[] delay = new int[size];
+        Arrays.fill(delay, SpreadAnalyzer.DEFAULT_DELAY);
+        boolean[] blocked = new boolean[size];
+        boolean[] present = new boolean[size];
+        for (int host = 0; host < size; host++) {
+            present[host] = network.contains(forest.address(host));
+            if (delays && forest.parent(host) != -1) {
+                delay[host] = random.nextInt(MAX_DELAY + 1);
+                analyzer.setDelay(forest.address(host), forest.address(forest.parent(host)), delay[host]);
+            }
+            if (present[host] && random.nextInt(BLOCK_RATE) == 0) {
+                blocked[host] = true;
+                analyzer.setBlocked(forest.address(host), true);
+            }
+        }
+        List<IP> seeds = new ArrayList<>();
+        List<Integer> seedHosts = new ArrayList<>();
+        for (int k = 1 + random.nextInt(4); k > 0; k--) {
+            int host = random.nextInt(size);
+            seeds.add(forest.address(host));
+            seedHosts.add(host);
+        }
+
+        int[] expected = reference(forest, delay, blocked, present, seedHosts);
+        SpreadResult result = analyzer.simulate(seeds);
+        int last = 0;
+        int infected = 0;
+        int unblocked = 0;
+        for (int host = 0; host < size; host++) {
+            if (!present[host]) continue;
+            if (!blocked[host]) unblocked++;
+            if (expected[host] != SpreadResult.NOT_INFECTED) {
+                infected++;
+                last = Math.max(last, expected[host]);
+            }
+            assertEquals(expected[host], result.getInfectionTime(forest.address(host)), "host " + host);
+        }
+        int full = infected == unblocked ? last : SpreadResult.NOT_INFECTED;
+        assertEquals(full, result.getTimeToFullInfection());
+        assertEquals(infected, result.getInfectedCount());
+        assertArrayEquals(new int[] {full, full}, analyzer.getTimesToFullInfection(List.of(seeds, seeds)));
+    }
+
+    /**
+     * Breadth first search over the adjacency list, connections with a delay are walked through a deque where a
+     * host is expanded again whenever it got an earlier time
+     */
+    private static int[] reference(RandomForest forest, int[] delay, boolean[] blocked, boolean[] present,
+                                   List<Integer> seeds) {
+        int[] times = new int[forest.size()];
+        Arrays.fill(times, SpreadResult.NOT_INFECTED);
+        List<Integer> queue = new ArrayList<>();
+        for (int seed : seeds) {
+            if (!present[seed] || blocked[seed]) continue;
+            times[seed] = 0;
+            queue.add(seed);
+        }
+        List<List<Integer>> neighbours = forest.adjacency();
+        for (int head = 0; head < queue.size(); head++) {
+            int host = queue.get(head);
+            for (int neighbour : neighbours.get(host)) {
+                if (blocked[neighbour]) continue;
+                int connection = forest.parent(host) == neighbour ? delay[host] : delay[neighbour];
+                int time = times[host] + connection;
+                if (times[neighbour] != SpreadResult.NOT_INFECTED && times[neighbour] <= time) continue;
+                times[neighbour] = time;
+                queue.add(neighbour);
+            }
+        }
+        return times;
+    }
+}
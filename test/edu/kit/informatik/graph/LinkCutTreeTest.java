@@ -0,0 +1,147 @@
+package edu.kit.informatik.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Randomized comparison of {@link LinkCutTree} with a naive forest of adjacency sets
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+class LinkCutTreeTest {
+    private static final long SEED = 20211L;
+
+    @Test
+    void matchesNaiveForest() {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 200; round++) {
+            run(random, 2 + random.nextInt(30), 400);
+        }
+        run(random, 2000, 20000);
+    }
+
+    @Test
+    void onlyHostsWithoutConnectionsCanBeRemoved() {
+        LinkCutTree forest = new LinkCutTree();
+        forest.add(1);
+        forest.add(2);
+        forest.link(1, 2);
+        assertThrows(IllegalStateException.class, () -> forest.remove(1));
+        forest.cut(1, 2);
+        assertEquals(true, forest.remove(1));
+        assertEquals(false, forest.remove(1));
+    }
+
+    private static void run(Random random, int keys, int steps) {
+        LinkCutTree forest = new LinkCutTree();
+        Map<Integer, Set<Integer>> naive = new HashMap<>();
+        // negative keys check that nothing depends on the sign of an address
+        int[] universe = new int[keys];
+        for (int i = 0; i < keys; i++) universe[i] = i * 0x9E3779B1;
+        for (int step = 0; step < steps; step++) {
+            int first = universe[random.nextInt(keys)];
+            int second = universe[random.nextInt(keys)];
+            switch (random.nextInt(8)) {
+                case 0:
+                    assertEquals(!naive.containsKey(first), forest.add(first));
+                    naive.putIfAbsent(first, new HashSet<>());
+                    break;
+                case 1:
+                    remove(forest, naive, first);
+                    break;
+                case 2:
+                case 3:
+                    boolean linkable = first != second && naive.containsKey(first) && naive.containsKey(second)
+                        && route(naive, first, second).isEmpty();
+                    assertEquals(linkable, forest.link(first, second));
+                    if (linkable) {
+                        naive.get(first).add(second);
+                        naive.get(second).add(first);
+                    }
+                    break;
+                case 4:
+                    boolean neighbours = naive.containsKey(first) && naive.get(first).contains(second);
+                    assertEquals(neighbours, forest.cut(first, second));
+                    if (neighbours) {
+                        naive.get(first).remove(second);
+                        naive.get(second).remove(first);
+                    }
+                    break;
+                case 5:
+                    forest.evert(first);
+                    if (naive.containsKey(first)) assertEquals(first, forest.root(first));
+                    break;
+                default:
+                    query(forest, naive, first, second);
+            }
+        }
+        assertEquals(naive.size(), forest.size());
+        int[] expected = naive.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] actual = forest.keys();
+        Arrays.sort(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    private static void remove(LinkCutTree forest, Map<Integer, Set<Integer>> naive, int key) {
+        if (naive.containsKey(key) && !naive.get(key).isEmpty()) {
+            assertThrows(IllegalStateException.class, () -> forest.remove(key));
+            return;
+        }
+        assertEquals(naive.remove(key) != null, forest.remove(key));
+    }
+
+    private static void query(LinkCutTree forest, Map<Integer, Set<Integer>> naive, int first, int second) {
+        List<Integer> route = route(naive, first, second);
+        assertEquals(naive.containsKey(first), forest.contains(first));
+        assertEquals(naive.containsKey(first) ? naive.get(first).size() : 0, forest.degree(first));
+        assertEquals(!route.isEmpty(), forest.connected(first, second));
+        assertEquals(route.size() - 1, forest.distance(first, second));
+        assertArrayEquals(route.stream().mapToInt(Integer::intValue).toArray(), forest.route(first, second));
+        if (!naive.containsKey(first)) {
+            assertEquals(first, forest.root(first));
+            assertEquals(first, forest.parent(first));
+            return;
+        }
+        // the parent is the next host on the route to the root
+        int root = forest.root(first);
+        List<Integer> up = route(naive, first, root);
+        assertEquals(up.size() > 1 ? up.get(1) : first, forest.parent(first));
+    }
+
+    /**
+     * Breadth first search for the route between two keys
+     *
+     * @return keys of the route from first to second, empty if there is none
+     */
+    private static List<Integer> route(Map<Integer, Set<Integer>> naive, int first, int second) {
+        List<Integer> route = new ArrayList<>();
+        if (!naive.containsKey(first) || !naive.containsKey(second)) return route;
+        Map<Integer, Integer> previous = new HashMap<>();
+        List<Integer> queue = new ArrayList<>(List.of(first));
+        previous.put(first, first);
+        for (int head = 0; head < queue.size() && !previous.containsKey(second); head++) {
+            for (int neighbour : naive.get(queue.get(head))) {
+                if (previous.putIfAbsent(neighbour, queue.get(head)) == null) queue.add(neighbour);
+            }
+        }
+        if (!previous.containsKey(second)) return route;
+        for (int key = second; key != first; key = previous.get(key)) {
+            route.add(0, key);
+        }
+        route.add(0, first);
+        return route;
+    }
+}
@@ -0,0 +1,120 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Randomized comparison of {@link DynamicNetwork} with {@link Network} and with a breadth first search over the
+ * adjacency list of a {@link RandomForest}
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+class DynamicNetworkTest {
+    private static final long SEED = 20211L;
+    private static final int QUERIES = 5;
+
+    @Test
+    void matchesNetwork() throws Exception {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 300; round++) {
+            int size = 3 + random.nextInt(30);
+            IP[] addresses = new IP[size];
+            for (int host = 0; host < size; host++) addresses[host] = IP.of(host * 104729 + 3);
+            Network network = new Network(addresses[0], List.of(addresses[1]));
+            DynamicNetwork dynamic = new DynamicNetwork(network);
+            for (int step = 0; step < 150; step++) {
+                IP first = addresses[random.nextInt(size)];
+                IP second = addresses[random.nextInt(size)];
+                switch (random.nextInt(4)) {
+                    case 0:
+                        Network subnet = randomSubnet(random, addresses);
+                        assertEquals(network.add(subnet), dynamic.add(subnet));
+                        break;
+                    case 1:
+                        assertEquals(network.connect(first, second), dynamic.connect(first, second));
+                        break;
+                    case 2:
+                        assertEquals(network.disconnect(first, second), dynamic.disconnect(first, second));
+                        break;
+                    default:
+                        break;
+                }
+                assertEquals(network.list(), dynamic.list());
+                assertEquals(network.size(), dynamic.size());
+                for (int query = 0; query < QUERIES; query++) {
+                    IP start = addresses[random.nextInt(size)];
+                    IP end = addresses[random.nextInt(size)];
+                    assertEquals(network.contains(start), dynamic.contains(start));
+                    assertEquals(network.getRoute(start, end), dynamic.getRoute(start, end));
+                    assertEquals(network.getDistance(start, end), dynamic.getDistance(start, end));
+                    assertEquals(network.getDistance(start, end) >= 0, dynamic.isConnected(start, end));
+                }
+            }
+            Network back = dynamic.toNetwork();
+            assertEquals(network.list(), back.list());
+            for (IP root : network.list()) assertEquals(network.toString(root), back.toString(root));
+        }
+    }
+
+    @Test
+    void compactNetworkMatchesBreadthFirstSearch() {
+        Random random = new Random(SEED + 1);
+        for (int round = 0; round < 100; round++) {
+            RandomForest forest = new RandomForest(random, 2 + random.nextInt(200), 0.05, random.nextBoolean());
+            DynamicNetwork dynamic = new DynamicNetwork(forest.toCompactNetwork());
+            List<List<Integer>> neighbours = forest.adjacency();
+            for (int query = 0; query < 50; query++) {
+                int start = random.nextInt(forest.size());
+                int end = random.nextInt(forest.size());
+                List<IP> route = route(forest, neighbours, start, end);
+                assertEquals(route, dynamic.getRoute(forest.address(start), forest.address(end)));
+                assertEquals(route.size() - 1, dynamic.getDistance(forest.address(start), forest.address(end)));
+                assertEquals(!route.isEmpty(), dynamic.isConnected(forest.address(start), forest.address(end)));
+            }
+        }
+    }
+
+    private static Network randomSubnet(Random random, IP[] addresses) throws Exception {
+        int count = 2 + random.nextInt(Math.min(4, addresses.length - 1));
+        List<IP> picked = new ArrayList<>();
+        while (picked.size() < count) {
+            IP address = addresses[random.nextInt(addresses.length)];
+            if (!picked.contains(address)) picked.add(address);
+        }
+        Network subnet = new Network(picked.get(0), List.of(picked.get(1)));
+        for (int i = 2; i < count; i++) {
+            subnet.add(new Network(picked.get(random.nextInt(i)), List.of(picked.get(i))));
+        }
+        return subnet;
+    }
+
+    /**
+     * Breadth first search for the route between two hosts, single hosts are not part of the network
+     */
+    private static List<IP> route(RandomForest forest, List<List<Integer>> neighbours, int start, int end) {
+        List<IP> route = new ArrayList<>();
+        if (neighbours.get(start).isEmpty() || neighbours.get(end).isEmpty()) return route;
+        int[] previous = new int[forest.size()];
+        Arrays.fill(previous, -1);
+        previous[start] = start;
+        List<Integer> queue = new ArrayList<>(List.of(start));
+        for (int head = 0; head < queue.size() && previous[end] == -1; head++) {
+            for (int neighbour : neighbours.get(queue.get(head))) {
+                if (previous[neighbour] != -1) continue;
+                previous[neighbour] = queue.get(head);
+                queue.add(neighbour);
+            }
+        }
+        if (previous[end] == -1) return route;
+        for (int host = end; host != start; host = previous[host]) route.add(0, forest.address(host));
+        route.add(0, forest.address(start));
+        return route;
+    }
+}
@@ -0,0 +1,181 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.graph.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Randomized checks of the queries of {@link Network} between changes, the cached structures of a subnet have to
+ * follow every change of it. The reference is a breadth first search over the current connections.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+class NetworkTest {
+    private static final long SEED = 20211L;
+    private static final int QUERIES = 4;
+
+    @Test
+    void routesFollowChanges() throws Exception {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 200; round++) {
+            IP[] addresses = addresses(4 + random.nextInt(40));
+            Network network = new Network(addresses[0], List.of(addresses[1]));
+            for (int step = 0; step < 100; step++) {
+                change(random, network, addresses);
+                Map<IP, List<IP>> neighbours = neighbours(network);
+                for (int query = 0; query < QUERIES; query++) {
+                    IP start = addresses[random.nextInt(addresses.length)];
+                    IP end = addresses[random.nextInt(addresses.length)];
+                    List<IP> route = route(neighbours, start, end);
+                    assertEquals(route, network.getRoute(start, end));
+                    assertEquals(route.size() - 1, network.getDistance(start, end));
+                    assertEquals(List.of(route), network.getRoutes(List.<IP[]>of(new IP[] {start, end})));
+                }
+            }
+        }
+    }
+
+    @Test
+    void metricsFollowChanges() throws Exception {
+        Random random = new Random(SEED + 1);
+        for (int round = 0; round < 200; round++) {
+            IP[] addresses = addresses(4 + random.nextInt(40));
+            Network network = new Network(addresses[0], List.of(addresses[1]));
+            for (int step = 0; step < 100; step++) {
+                change(random, network, addresses);
+                Map<IP, List<IP>> neighbours = neighbours(network);
+                List<IP> hosts = network.list();
+                int[] expected = new int[hosts.size()];
+                Map<IP, Integer> radii = new HashMap<>();
+                int diameter = 0;
+                for (int host = 0; host < expected.length; host++) {
+                    Map<IP, Integer> distances = distances(neighbours, hosts.get(host));
+                    for (int distance : distances.values()) expected[host] = Math.max(expected[host], distance);
+                    diameter = Math.max(diameter, expected[host]);
+                    // every subnet is named after its smallest address
+                    IP subnet = distances.keySet().stream().min(IP::compareTo).orElseThrow();
+                    radii.merge(subnet, expected[host], Math::min);
+                }
+                List<IP> centers = new ArrayList<>();
+                for (int host = 0; host < expected.length; host++) {
+                    IP subnet = distances(neighbours, hosts.get(host)).keySet().stream().min(IP::compareTo)
+                        .orElseThrow();
+                    if (radii.get(subnet) == expected[host]) centers.add(hosts.get(host));
+                }
+                int radius = radii.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+                assertArrayEquals(expected, network.eccentricities());
+                for (int host = 0; host < expected.length; host++) {
+                    assertEquals(expected[host], network.getHeight(hosts.get(host)));
+                }
+                assertEquals(diameter, network.getDiameter());
+                assertEquals(radius, network.getRadius());
+                assertEquals(centers, network.getCenters());
+            }
+        }
+    }
+
+    static IP[] addresses(int size) {
+        IP[] addresses = new IP[size];
+        for (int host = 0; host < size; host++) addresses[host] = IP.of(host * 7919 + 11);
+        return addresses;
+    }
+
+    /**
+     * Applying a random change, most of them touch only one or two of the subnets
+     */
+    static void change(Random random, Network network, IP[] addresses) throws Exception {
+        IP first = addresses[random.nextInt(addresses.length)];
+        IP second = addresses[random.nextInt(addresses.length)];
+        switch (random.nextInt(6)) {
+            case 0:
+                network.add(randomSubnet(random, addresses));
+                break;
+            case 1:
+            case 2:
+                network.connect(first, second);
+                break;
+            case 3:
+                network.disconnect(first, second);
+                break;
+            case 4:
+                if (network.contains(first)) network.betterChangeRoot(first, null);
+                break;
+            default:
+                // moving a subnet out and back in again
+                if (network.contains(first) && network.size() > 2) network.absorb(network.extract(first));
+        }
+    }
+
+    private static Network randomSubnet(Random random, IP[] addresses) throws Exception {
+        int count = 2 + random.nextInt(Math.min(4, addresses.length - 1));
+        List<IP> picked = new ArrayList<>();
+        while (picked.size() < count) {
+            IP address = addresses[random.nextInt(addresses.length)];
+            if (!picked.contains(address)) picked.add(address);
+        }
+        Network subnet = new Network(picked.get(0), List.of(picked.get(1)));
+        for (int i = 2; i < count; i++) {
+            subnet.add(new Network(picked.get(random.nextInt(i)), List.of(picked.get(i))));
+        }
+        return subnet;
+    }
+
+    /**
+     * Getting the neighbours of every host from the current parent links
+     */
+    static Map<IP, List<IP>> neighbours(Network network) {
+        Map<IP, List<IP>> neighbours = new HashMap<>();
+        for (IP host : network.list()) neighbours.put(host, new ArrayList<>());
+        for (IP host : network.list()) {
+            Node parent = network.getAsNode(host, -1).getParent();
+            if (parent == null) continue;
+            neighbours.get(host).add(parent.getAddress());
+            neighbours.get(parent.getAddress()).add(host);
+        }
+        return neighbours;
+    }
+
+    /**
+     * Breadth first search for the distance of every host of the subnet of a host
+     */
+    static Map<IP, Integer> distances(Map<IP, List<IP>> neighbours, IP start) {
+        Map<IP, Integer> distances = new HashMap<>();
+        if (!neighbours.containsKey(start)) return distances;
+        List<IP> queue = new ArrayList<>(List.of(start));
+        distances.put(start, 0);
+        for (int head = 0; head < queue.size(); head++) {
+            IP host = queue.get(head);
+            for (IP neighbour : neighbours.get(host)) {
+                if (distances.containsKey(neighbour)) continue;
+                distances.put(neighbour, distances.get(host) + 1);
+                queue.add(neighbour);
+            }
+        }
+        return distances;
+    }
+
+    private static List<IP> route(Map<IP, List<IP>> neighbours, IP start, IP end) {
+        Map<IP, Integer> distances = distances(neighbours, end);
+        List<IP> route = new ArrayList<>();
+        if (!distances.containsKey(start)) return route;
+        // walking down the distances to the end
+        for (IP host = start; host != null;) {
+            route.add(host);
+            IP next = null;
+            for (IP neighbour : neighbours.get(host)) {
+                if (distances.get(neighbour) == distances.get(host) - 1) next = neighbour;
+            }
+            host = next;
+        }
+        return route;
+    }
+}
@@ -0,0 +1,125 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Random forest with random addresses for the randomized checks, together with a plain adjacency list which the
+ * naive reference implementations work on
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+public final class RandomForest {
+    /**
+     * number of hosts a parent is picked from, a small window makes deep chains
+     */
+    private static final int DEEP_WINDOW = 3;
+
+    private final int[] addresses;
+    /**
+     * index of the parent of every host, -1 for the root of a tree
+     */
+    private final int[] parents;
+
+    /**
+     * Generates a forest, host 0 is always a root
+     *
+     * @param random   source of randomness
+     * @param size     number of hosts, at least 2
+     * @param rootRate chance of every other host to be the root of another tree
+     * @param deep     true to pick parents close to the host, which makes long chains
+     */
+    public RandomForest(final Random random, final int size, final double rootRate, final boolean deep) {
+        addresses = new int[size];
+        parents = new int[size];
+        Set<Integer> used = new HashSet<>();
+        for (int host = 0; host < size; host++) {
+            int address = random.nextInt();
+            while (!used.add(address)) address = random.nextInt();
+            addresses[host] = address;
+            if (host == 0 || random.nextDouble() < rootRate) {
+                parents[host] = -1;
+            } else {
+                int window = deep ? Math.min(host, DEEP_WINDOW) : host;
+                parents[host] = host - 1 - random.nextInt(window);
+            }
+        }
+    }
+
+    /**
+     * Getting the number of hosts
+     *
+     * @return number of hosts
+     */
+    public int size() {
+        return addresses.length;
+    }
+
+    /**
+     * Getting the address of a host
+     *
+     * @param host index of the host
+     * @return IP-Address
+     */
+    public IP address(final int host) {
+        return IP.of(addresses[host]);
+    }
+
+    /**
+     * Getting the parent of a host
+     *
+     * @param host index of the host
+     * @return index of the parent or -1 for a root
+     */
+    public int parent(final int host) {
+        return parents[host];
+    }
+
+    /**
+     * Getting the neighbours of every host
+     *
+     * @return indices of the neighbours of every host
+     */
+    public List<List<Integer>> adjacency() {
+        List<List<Integer>> neighbours = new ArrayList<>();
+        for (int host = 0; host < size(); host++) {
+            neighbours.add(new ArrayList<>());
+        }
+        for (int host = 0; host < size(); host++) {
+            if (parents[host] == -1) continue;
+            neighbours.get(host).add(parents[host]);
+            neighbours.get(parents[host]).add(host);
+        }
+        return neighbours;
+    }
+
+    /**
+     * Building a compact network of the forest, trees with a single host are left out
+     *
+     * @return compact network
+     */
+    public CompactNetwork toCompactNetwork() {
+        boolean[] connected = new boolean[size()];
+        for (int host = 0; host < size(); host++) {
+            if (parents[host] == -1) continue;
+            connected[host] = true;
+            connected[parents[host]] = true;
+        }
+        List<Integer> hosts = new ArrayList<>();
+        for (int host = 0; host < size(); host++) {
+            if (connected[host]) hosts.add(host);
+        }
+        int[] hostAddresses = new int[hosts.size()];
+        int[] parentAddresses = new int[hosts.size()];
+        for (int i = 0; i < hostAddresses.length; i++) {
+            int host = hosts.get(i);
+            hostAddresses[i] = addresses[host];
+            parentAddresses[i] = parents[host] == -1 ? addresses[host] : addresses[parents[host]];
+        }
+        return new CompactNetwork(hostAddresses, parentAddresses);
+    }
+}
@@ -0,0 +1,148 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks of loading valid and corrupted topology files. Corruptions of the contents get a fixed CRC32, so only the
+ * checks of the contents can find them.
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+class TopologyFileTest {
+    private static final long SEED = 20211L;
+    private static final int HEADER_INTS = 5;
+    private static final int CHECKSUM_POSITION = 4;
+    private static final int SIZE = 40;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void validFilesLoadWithAndWithoutVerifying() throws Exception {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 50; round++) {
+            RandomForest forest = new RandomForest(random, 2 + random.nextInt(300), 0.05, random.nextBoolean());
+            CompactNetwork network = forest.toCompactNetwork();
+            Path file = directory.resolve("valid" + round);
+            TopologyFile.write(network, file);
+            assertEquals(network.list(), TopologyFile.load(file).list());
+            assertEquals(network.list(), TopologyFile.load(file, true).list());
+        }
+    }
+
+    @Test
+    void brokenHeaderIsAlwaysFound() throws Exception {
+        Path file = write();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - Integer.BYTES));
+        assertThrows(ParseException.class, () -> TopologyFile.load(file));
+        Files.write(file, bytes);
+        corrupt(file, ints -> ints[0] = 0, false);
+        assertThrows(ParseException.class, () -> TopologyFile.load(file));
+    }
+
+    @Test
+    void wrongChecksumIsOnlyFoundWhenVerifying() throws Exception {
+        Path file = write();
+        corrupt(file, ints -> ints[CHECKSUM_POSITION]++, false);
+        assertDoesNotThrow(() -> TopologyFile.load(file));
+        assertThrows(ParseException.class, () -> TopologyFile.load(file, true));
+    }
+
+    @Test
+    void corruptedContentsAreFoundWhenVerifying() throws Exception {
+        int size = SIZE;
+        // a chain 0 - 1 - 2 ..., every host but the last has exactly one child
+        checkCorrupted(ints -> ints[parents(size) + 5] = size, "parent out of range");
+        checkCorrupted(ints -> ints[parents(size) + 5] = -2, "negative parent");
+        checkCorrupted(ints -> {
+            // host 3 gets its own child as parent, which closes a circle
+            ints[parents(size) + 3] = 4;
+        }, "circle of parents");
+        checkCorrupted(ints -> {
+            int first = ints[HEADER_INTS + 7];
+            ints[HEADER_INTS + 7] = ints[HEADER_INTS + 8];
+            ints[HEADER_INTS + 8] = first;
+        }, "unsorted addresses");
+        checkCorrupted(ints -> ints[children(size) + 2] = size + 3, "child out of range");
+        checkCorrupted(ints -> ints[children(size) + 2] = 7, "child of another host");
+        checkCorrupted(ints -> ints[offsets(size) + 3] = size, "offset out of range");
+        checkCorrupted(ints -> ints[offsets(size) + 3] = ints[offsets(size) + 2] - 1, "descending offsets");
+        checkCorrupted(ints -> ints[depths(size) + 9] = 1, "wrong depth");
+    }
+
+    private void checkCorrupted(Consumer<int[]> corruption, String name) throws Exception {
+        Path file = directory.resolve(name.replace(' ', '-'));
+        TopologyFile.write(chain(SIZE), file);
+        corrupt(file, corruption, true);
+        assertThrows(ParseException.class, () -> TopologyFile.load(file, true), name);
+    }
+
+    private Path write() throws Exception {
+        Path file = directory.resolve("network");
+        TopologyFile.write(chain(SIZE), file);
+        return file;
+    }
+
+    /**
+     * Building a chain whose addresses ascend along the chain, so host i has the parent i - 1
+     */
+    private static CompactNetwork chain(int size) {
+        int[] addresses = new int[size];
+        int[] parentAddresses = new int[size];
+        for (int host = 0; host < size; host++) {
+            addresses[host] = host * 3 + 1;
+            parentAddresses[host] = host == 0 ? addresses[0] : addresses[host - 1];
+        }
+        return new CompactNetwork(addresses, parentAddresses);
+    }
+
+    private static int parents(int size) {
+        return HEADER_INTS + size;
+    }
+
+    private static int depths(int size) {
+        return HEADER_INTS + 2 * size;
+    }
+
+    private static int offsets(int size) {
+        return HEADER_INTS + 3 * size;
+    }
+
+    private static int children(int size) {
+        return HEADER_INTS + 4 * size + 1;
+    }
+
+    /**
+     * Changing the ints of a file, optionally the CRC32 gets written for the changed contents
+     */
+    private static void corrupt(Path file, Consumer<int[]> corruption, boolean fixChecksum) throws Exception {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        int[] ints = new int[bytes.capacity() / Integer.BYTES];
+        bytes.asIntBuffer().get(ints);
+        corruption.accept(ints);
+        bytes.asIntBuffer().put(ints);
+        if (fixChecksum) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes.array(), HEADER_INTS * Integer.BYTES, bytes.capacity() - HEADER_INTS * Integer.BYTES);
+            bytes.putInt(CHECKSUM_POSITION * Integer.BYTES, (int) crc.getValue());
+        }
+        Files.write(file, bytes.array());
+    }
+}
@@ -0,0 +1,205 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Randomized checks of the recovery of {@link TopologyStore}, a recovered network has to have the same hosts and
+ * connections as the network which was stored
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+class TopologyStoreTest {
+    private static final long SEED = 20211L;
+    private static final String JOURNAL = "journal.bin";
+    private static final int NEVER = Integer.MAX_VALUE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoveryMatchesLiveNetwork() throws Exception {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 100; round++) {
+            Path store = Files.createDirectory(directory.resolve("store" + round));
+            IP[] addresses = addresses(4 + random.nextInt(25));
+            int groupSize = 1 + random.nextInt(5);
+            // small intervals write checkpoints in between the records
+            int interval = 1 + random.nextInt(40);
+            TopologyStore topologyStore = new TopologyStore(store, groupSize, interval);
+            assertNull(topologyStore.recover());
+            Network network = new Network(addresses[0], List.of(addresses[1]));
+            topologyStore.track(network);
+            for (int restart = 0; restart < 4; restart++) {
+                change(random, network, addresses, 60);
+                String expected = shape(network);
+                topologyStore.close();
+                long length = Files.size(store.resolve(JOURNAL));
+                boolean garbage = random.nextBoolean();
+                if (garbage) {
+                    Files.write(store.resolve(JOURNAL), new byte[] {9, 0, 0, 0, 1, 2, 3}, StandardOpenOption.APPEND);
+                }
+                topologyStore = new TopologyStore(store, groupSize, interval);
+                network = topologyStore.recover();
+                assertEquals(expected, shape(network));
+                assertEquals(length, Files.size(store.resolve(JOURNAL)));
+            }
+            topologyStore.close();
+        }
+    }
+
+    @Test
+    void tornFrameIsCutOff() throws Exception {
+        Random random = new Random(SEED + 1);
+        for (int round = 0; round < 50; round++) {
+            Path store = Files.createDirectory(directory.resolve("store" + round));
+            IP[] addresses = addresses(4 + random.nextInt(25));
+            TopologyStore topologyStore = new TopologyStore(store, 1, NEVER);
+            Network network = new Network(addresses[0], List.of(addresses[1]));
+            topologyStore.track(network);
+            change(random, network, addresses, 40);
+            String before = shape(network);
+            long length = Files.size(store.resolve(JOURNAL));
+            // every change of the network is one frame, so the last frame is the one of this connection
+            network.add(new Network(IP.of(1), List.of(IP.of(2))));
+            topologyStore.close();
+            long torn = Files.size(store.resolve(JOURNAL)) - 1 - random.nextInt(8);
+            try (FileChannel channel = FileChannel.open(store.resolve(JOURNAL), StandardOpenOption.WRITE)) {
+                channel.truncate(torn);
+            }
+            topologyStore = new TopologyStore(store, 1, NEVER);
+            assertEquals(before, shape(topologyStore.recover()));
+            assertEquals(length, Files.size(store.resolve(JOURNAL)));
+            topologyStore.close();
+        }
+    }
+
+    @Test
+    void recordsOfTheCheckpointDontChangeTheNetwork() throws Exception {
+        Random random = new Random(SEED + 2);
+        for (int round = 0; round < 50; round++) {
+            Path store = Files.createDirectory(directory.resolve("store" + round));
+            IP[] addresses = addresses(4 + random.nextInt(25));
+            TopologyStore topologyStore = new TopologyStore(store, 1, NEVER);
+            Network network = new Network(addresses[0], List.of(addresses[1]));
+            topologyStore.track(network);
+            change(random, network, addresses, 60);
+            byte[] journal = Files.readAllBytes(store.resolve(JOURNAL));
+            topologyStore.checkpoint();
+            change(random, network, addresses, 20);
+            String expected = shape(network);
+            topologyStore.close();
+            // a crash after the checkpoint was renamed but before the journal was cleared leaves the old records in
+            // front of the new ones
+            byte[] current = Files.readAllBytes(store.resolve(JOURNAL));
+            byte[] both = new byte[journal.length + current.length];
+            System.arraycopy(journal, 0, both, 0, journal.length);
+            System.arraycopy(current, 0, both, journal.length, current.length);
+            Files.write(store.resolve(JOURNAL), both);
+            topologyStore = new TopologyStore(store, 1, NEVER);
+            assertEquals(expected, shape(topologyStore.recover()));
+            topologyStore.close();
+        }
+    }
+
+    @Test
+    void removalOfTheLastConnectionIsReplayed() throws Exception {
+        TopologyStore topologyStore = new TopologyStore(directory, 1, NEVER);
+        Network network = new Network(IP.of(1), List.of(IP.of(2)));
+        topologyStore.track(network);
+        // unlike disconnect, removeConnection takes away the last connection as well
+        network.removeConnection(network.getAsNode(IP.of(1), -1), network.getAsNode(IP.of(2), -1));
+        assertEquals(0, network.size());
+        network.add(new Network(IP.of(3), List.of(IP.of(4))));
+        String expected = shape(network);
+        topologyStore.close();
+        topologyStore = new TopologyStore(directory, 1, NEVER);
+        assertEquals(expected, shape(topologyStore.recover()));
+        topologyStore.close();
+    }
+
+    @Test
+    void failedWriteIsReportedByTheStore() throws Exception {
+        TopologyStore topologyStore = new TopologyStore(directory, 1, 1);
+        Network network = new Network(IP.of(1), List.of(IP.of(2)));
+        topologyStore.track(network);
+        // a directory in the way of the temporary checkpoint makes the next checkpoint fail
+        Files.createDirectory(directory.resolve("checkpoint.tmp"));
+        assertTrue(network.add(new Network(IP.of(2), List.of(IP.of(3)))));
+        assertEquals(3, network.size());
+        assertThrows(IOException.class, topologyStore::sync);
+        assertThrows(IOException.class, topologyStore::checkpoint);
+        assertThrows(IOException.class, topologyStore::close);
+    }
+
+    private static IP[] addresses(int size) {
+        IP[] addresses = new IP[size];
+        for (int host = 0; host < size; host++) addresses[host] = IP.of(host * 13 + 3);
+        return addresses;
+    }
+
+    private static void change(Random random, Network network, IP[] addresses, int steps) throws Exception {
+        for (int step = 0; step < steps; step++) {
+            IP first = addresses[random.nextInt(addresses.length)];
+            IP second = addresses[random.nextInt(addresses.length)];
+            switch (random.nextInt(3)) {
+                case 0:
+                    network.add(randomSubnet(random, addresses));
+                    break;
+                case 1:
+                    network.connect(first, second);
+                    break;
+                default:
+                    network.disconnect(first, second);
+            }
+        }
+    }
+
+    private static Network randomSubnet(Random random, IP[] addresses) throws Exception {
+        int count = 2 + random.nextInt(Math.min(4, addresses.length - 1));
+        List<IP> picked = new ArrayList<>();
+        while (picked.size() < count) {
+            IP address = addresses[random.nextInt(addresses.length)];
+            if (!picked.contains(address)) picked.add(address);
+        }
+        Network subnet = new Network(picked.get(0), List.of(picked.get(1)));
+        for (int i = 2; i < count; i++) {
+            subnet.add(new Network(picked.get(random.nextInt(i)), List.of(picked.get(i))));
+        }
+        return subnet;
+    }
+
+    /**
+     * Describing a network by its hosts and connections, independent of the orientation of its node trees
+     */
+    private static String shape(Network network) {
+        if (network == null) return "empty";
+        SortedSet<String> connections = new TreeSet<>();
+        List<IP> hosts = network.list();
+        for (IP first : hosts) {
+            for (IP second : hosts) {
+                if (first.compareTo(second) < 0 && network.getDistance(first, second) == 1) {
+                    connections.add(first + "-" + second);
+                }
+            }
+        }
+        return hosts + " " + connections;
+    }
+}
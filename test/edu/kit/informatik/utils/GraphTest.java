@@ -0,0 +1,110 @@
+package edu.kit.informatik.utils;
+
+import edu.kit.informatik.graph.Node;
+import edu.kit.informatik.network.IP;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks of {@link Graph#unionInto(Node, Node)} against the union of the root paths of both trees
+ *
+ * @author unyrg
+ * @version 1.0
+ */
+class GraphTest {
+    private static final long SEED = 20211L;
+
+    @Test
+    void unionMovesSubtreesAndMarksStatistics() {
+        // target (1 (2 3) 4), source (1 (2 5) 6)
+        Node target = node(1, node(2, node(3)), node(4));
+        Node source = node(1, node(2, node(5)), node(6));
+        assertEquals(4, target.getSubtreeSize());
+        assertEquals(4, source.getSubtreeSize());
+
+        List<Node> moved = Graph.unionInto(target, source);
+
+        assertEquals(List.of(IP.of(6), IP.of(5)), addresses(moved));
+        assertEquals(List.of(IP.of(1), IP.of(2), IP.of(4), IP.of(6), IP.of(3), IP.of(5)),
+            addresses(Graph.getNodes(target)));
+        for (Node node : moved) assertEquals(target, Graph.getSubnetRoot(node));
+        assertSame(target.getChildren().get(0), moved.get(1).getParent());
+        // moved subtrees are detached from the source and the statistics of both trees are recounted
+        assertEquals(List.of(IP.of(1), IP.of(2)), addresses(Graph.getNodes(source)));
+        assertEquals(6, target.getSubtreeSize());
+        assertEquals(2, target.getSubtreeHeight());
+        assertEquals(2, source.getSubtreeSize());
+        assertEquals(1, source.getSubtreeHeight());
+    }
+
+    @Test
+    void unionMatchesRootPaths() {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 500; round++) {
+            int size = 2 + random.nextInt(40);
+            Node target = randomTree(random, size);
+            Node source = randomTree(random, size);
+            SortedSet<String> expected = paths(target);
+            expected.addAll(paths(source));
+            int sourceSize = source.getSubtreeSize();
+
+            List<Node> moved = Graph.unionInto(target, source);
+
+            assertEquals(expected, paths(target));
+            assertEquals(expected.size(), target.getSubtreeSize());
+            int movedSize = 0;
+            for (Node node : moved) movedSize += node.getSubtreeSize();
+            assertEquals(sourceSize - movedSize, source.getSubtreeSize());
+        }
+    }
+
+    /**
+     * Building a random tree with root address 0, every path from the root is unique, so two trees of the same
+     * small address range overlap in many paths
+     */
+    private static Node randomTree(Random random, int size) {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(node(0));
+        for (int i = 1; i < size; i++) {
+            Node parent = nodes.get(random.nextInt(nodes.size()));
+            int address = 1 + random.nextInt(4);
+            boolean taken = false;
+            for (Node child : parent.getChildren()) taken |= child.getAddress().toInt() == address;
+            if (taken) continue;
+            Node child = node(address);
+            parent.addChildren(new ArrayList<>(List.of(child)));
+            nodes.add(child);
+        }
+        return nodes.get(0);
+    }
+
+    private static SortedSet<String> paths(Node root) {
+        SortedSet<String> paths = new TreeSet<>();
+        for (Node node : Graph.getNodes(root)) {
+            StringBuilder path = new StringBuilder();
+            for (Node current = node; current != null; current = current.getParent()) {
+                path.insert(0, current.getAddress().toInt() + "/");
+            }
+            paths.add(path.toString());
+        }
+        return paths;
+    }
+
+    private static Node node(int address, Node... children) {
+        return new Node(IP.of(address), new ArrayList<>(List.of(children)));
+    }
+
+    private static List<IP> addresses(List<Node> nodes) {
+        List<IP> addresses = new ArrayList<>();
+        for (Node node : nodes) addresses.add(node.getAddress());
+        return addresses;
+    }
+}